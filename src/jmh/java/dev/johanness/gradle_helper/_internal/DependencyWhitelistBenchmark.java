@@ -0,0 +1,86 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DependencyWhitelistBenchmark {
+  private static final int CANDIDATES = 1024;
+
+  @Param({"10", "100", "1000", "10000"})
+  public int whitelistSize;
+
+  private List<String> globs;
+  private DependencyWhitelist whitelist;
+  private String[] groups;
+  private String[] modules;
+  private String[] versions;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    String[] realVersions = VersionClassifierBenchmark.readVersions();
+
+    // Most entries name a module, a few use wildcards in the group or module.
+    globs = new ArrayList<>(whitelistSize);
+    for (int i = 0; i < whitelistSize; i++) {
+      switch (i % 20) {
+        case 0:
+          globs.add("org.example" + i + "*:*:*-SNAPSHOT");
+          break;
+        case 1:
+          globs.add("com.example.group" + i + ":*:*-rc*");
+          break;
+        default:
+          globs.add("com.example.group" + i + ":module" + i + ":*-" + (i % 2 == 0 ? "M*" : "dev"));
+          break;
+      }
+    }
+    whitelist = new DependencyWhitelist(globs);
+
+    // A quarter of the candidates refers to whitelisted modules, the rest does not.
+    groups = new String[CANDIDATES];
+    modules = new String[CANDIDATES];
+    versions = new String[CANDIDATES];
+    for (int i = 0; i < CANDIDATES; i++) {
+      int entry = random.nextInt(whitelistSize);
+      boolean whitelisted = random.nextInt(4) == 0;
+      groups[i] = whitelisted ? "com.example.group" + entry : "org.unrelated.group" + entry;
+      modules[i] = "module" + entry;
+      versions[i] = realVersions[random.nextInt(realVersions.length)];
+    }
+  }
+
+  @Benchmark
+  public @NotNull DependencyWhitelist construct() {
+    return new DependencyWhitelist(globs);
+  }
+
+  @Benchmark
+  public void contains(@NotNull Blackhole blackhole) {
+    for (int i = 0; i < CANDIDATES; i++) {
+      blackhole.consume(whitelist.contains(groups[i], modules[i], versions[i]));
+    }
+  }
+}
@@ -0,0 +1,71 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VersionClassifierBenchmark {
+  private static final @NotNull String VERSIONS_RESOURCE = "maven-central-versions.txt";
+
+  // The regular expression used before VersionClassifier, kept as a baseline.
+  private static final @NotNull Pattern RELEASED_VERSION_PATTERN =
+      Pattern.compile("(\\d|release|ga|final|sp|[-._+])+", Pattern.CASE_INSENSITIVE);
+
+  private String[] versions;
+
+  @Setup
+  public void setUp() {
+    versions = readVersions();
+  }
+
+  @Benchmark
+  public void looksLikePreRelease(@NotNull Blackhole blackhole) {
+    for (String version : versions) {
+      blackhole.consume(VersionClassifier.DEFAULT.looksLikePreRelease(version));
+    }
+  }
+
+  @Benchmark
+  public void looksLikePreRelease_regex(@NotNull Blackhole blackhole) {
+    for (String version : versions) {
+      blackhole.consume(!RELEASED_VERSION_PATTERN.matcher(version).matches());
+    }
+  }
+
+  static @NotNull String @NotNull [] readVersions() {
+    try (InputStream stream = VersionClassifierBenchmark.class.getResourceAsStream(VERSIONS_RESOURCE);
+         BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+      return reader.lines()
+          .map(String::trim)
+          .filter(line -> !line.isEmpty())
+          .toArray(String[]::new);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -1,30 +1,115 @@
 package dev.johanness.gradle_helper;
 
-import dev.johanness.gradle_helper._internal.DependencyWhitelist;
+import dev.johanness.gradle_helper._internal.BuildCacheNormalization;
+import dev.johanness.gradle_helper._internal.ConfigurationTimer;
+import dev.johanness.gradle_helper._internal.DependencyFingerprint;
+import dev.johanness.gradle_helper._internal.DependencySelector;
 import dev.johanness.gradle_helper._internal.ExtensionUtil;
+import dev.johanness.gradle_helper._internal.LockState;
+import dev.johanness.gradle_helper._internal.LockedConfiguration;
+import dev.johanness.gradle_helper._internal.SeedRepository;
+import dev.johanness.gradle_helper._internal.Shard;
+import dev.johanness.gradle_helper._internal.TaskArguments;
+import dev.johanness.gradle_helper._internal.UpdateReport;
 import dev.johanness.gradle_helper.extension.SettingsExtension;
+import dev.johanness.gradle_helper.service.BuildCacheNormalizationService;
+import dev.johanness.gradle_helper.service.DependencyUpdateService;
+import dev.johanness.gradle_helper.service.RealizationCounterService;
+import dev.johanness.gradle_helper.service.ResolutionPolicyService;
+import dev.johanness.gradle_helper.service.TaskHistoryService;
+import dev.johanness.gradle_helper.service.TaskInputRecorderService;
+import dev.johanness.gradle_helper.task.BuildTrends;
+import dev.johanness.gradle_helper.task.CheckLockConsistency;
+import dev.johanness.gradle_helper.task.CompareTaskInputs;
+import dev.johanness.gradle_helper.task.ExportSeedRepository;
+import dev.johanness.gradle_helper.task.IndexLockfiles;
+import dev.johanness.gradle_helper.task.QueryLockfiles;
 import dev.johanness.gradle_helper.task.UpdateDependencies;
+import dev.johanness.gradle_helper.task.UpdateProjectDependencies;
+import dev.johanness.gradle_helper.task.VerifyDependencyLocks;
+import org.gradle.api.Action;
+import org.gradle.api.GradleException;
 import org.gradle.api.Plugin;
 import org.gradle.api.Project;
+import org.gradle.api.Task;
+import org.gradle.api.artifacts.ComponentSelection;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ExternalDependency;
 import org.gradle.api.artifacts.dsl.LockMode;
+import org.gradle.api.initialization.ProjectDescriptor;
 import org.gradle.api.initialization.Settings;
+import org.gradle.api.invocation.Gradle;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.TaskProvider;
+import org.gradle.api.tasks.bundling.AbstractArchiveTask;
 import org.gradle.api.tasks.compile.JavaCompile;
 import org.gradle.api.tasks.javadoc.Javadoc;
+import org.gradle.build.event.BuildEventsListenerRegistry;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import javax.inject.Inject;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 public final class GradleHelperPlugin implements Plugin<Settings> {
+  private static final @NotNull Logger LOGGER = Logging.getLogger(GradleHelperPlugin.class);
+
   private static final @NotNull String EXTENSION_NAME = "gradleHelper";
   private static final @NotNull String UPDATE_DEPENDENCIES_TASK_NAME = "updateDependencies";
+  private static final @NotNull String UPDATE_PROJECT_DEPENDENCIES_TASK_NAME = "updateProjectDependencies";
+  private static final @NotNull String CHECK_LOCK_CONSISTENCY_TASK_NAME = "checkLockConsistency";
+  private static final @NotNull String VERIFY_DEPENDENCY_LOCKS_TASK_NAME = "verifyDependencyLocks";
+  private static final @NotNull String INDEX_LOCKFILES_TASK_NAME = "indexLockfiles";
+  private static final @NotNull String QUERY_LOCKFILES_TASK_NAME = "queryLockfiles";
+  private static final @NotNull String COMPARE_TASK_INPUTS_TASK_NAME = "compareTaskInputs";
+  private static final @NotNull String EXPORT_SEED_REPOSITORY_TASK_NAME = "exportSeedRepository";
+  private static final @NotNull String BUILD_TRENDS_TASK_NAME = "buildTrends";
+  private static final @NotNull String DEPENDENCY_UPDATE_SERVICE_NAME = "gradleHelperDependencyUpdates";
+  private static final @NotNull String RESOLUTION_POLICY_SERVICE_NAME = "gradleHelperResolutionPolicy";
+  private static final @NotNull String REALIZATION_COUNTER_SERVICE_NAME = "gradleHelperRealizations";
+  private static final @NotNull String BUILD_CACHE_NORMALIZATION_SERVICE_NAME = "gradleHelperBuildCacheNormalization";
+  private static final @NotNull String TASK_INPUT_RECORDER_SERVICE_NAME = "gradleHelperTaskInputs";
+  private static final @NotNull String TASK_HISTORY_SERVICE_NAME = "gradleHelperTaskHistory";
+  private static final @NotNull String UPDATE_STATE_FILE = "gradle-helper/update-dependencies.properties";
+  private static final @NotNull String VERIFIED_STATE_FILE = "gradle-helper/verify-dependency-locks.properties";
+  private static final @NotNull String LOCKFILE_INDEX_FILE = "gradle-helper/lockfile-index.bin";
+  private static final @NotNull String TASK_INPUTS_FILE = "gradle-helper/task-inputs.gz";
+  // Kept in the project cache directory, so that it survives "gradle clean".
+  private static final @NotNull String TASK_HISTORY_FILE = "gradle-helper/task-history.txt";
+  private static final @NotNull String REPORT_DIRECTORY = "reports/gradle-helper";
+  private static final @NotNull String SEED_REPOSITORY_DIRECTORY = "seed-repository";
+  private static final @NotNull String SEED_REPOSITORY_NAME = "gradleHelperSeed";
+  private static final @NotNull String BUILD_CACHE_NORMALIZATION_REPORT = REPORT_DIRECTORY + "/build-cache-normalization.txt";
+  private static final @NotNull String DEPENDENCY_OPTION = "dependency";
 
   private static final @NotNull Pattern UPDATE_DEPENDENCIES_TASK_PATTERN =
-      Pattern.compile(":?" + Pattern.quote(UPDATE_DEPENDENCIES_TASK_NAME), Pattern.CASE_INSENSITIVE);
+      Pattern.compile(":?" + Pattern.quote(UPDATE_DEPENDENCIES_TASK_NAME) + "|" +
+                      "(?:.*:)?" + Pattern.quote(UPDATE_PROJECT_DEPENDENCIES_TASK_NAME),
+          Pattern.CASE_INSENSITIVE);
+
+  private final @NotNull BuildEventsListenerRegistry buildEventsListenerRegistry;
 
-  // The pattern is based on https://docs.gradle.org/current/userguide/single_versions.html#version_ordering
-  private static final @NotNull Pattern RELEASED_VERSION_PATTERN =
-      Pattern.compile("(\\d|release|ga|final|sp|[-._+])+", Pattern.CASE_INSENSITIVE);
+  @Inject
+  public GradleHelperPlugin(@NotNull BuildEventsListenerRegistry buildEventsListenerRegistry) {
+    this.buildEventsListenerRegistry = buildEventsListenerRegistry;
+  }
 
   @Override
   public void apply(@NotNull Settings settings) {
@@ -33,61 +118,482 @@ public void apply(@NotNull Settings settings) {
         SettingsExtension.class,
         settings);
 
+    Provider<DependencyUpdateService> dependencyUpdateService =
+        settings.getGradle().getSharedServices().registerIfAbsent(
+            DEPENDENCY_UPDATE_SERVICE_NAME,
+            DependencyUpdateService.class,
+            spec -> spec.getMaxParallelUsages().set(
+                extension.getDependencyLocking().getMaxParallelUpdates()));
+
+    Provider<RealizationCounterService> realizationCounter =
+        settings.getGradle().getSharedServices().registerIfAbsent(
+            REALIZATION_COUNTER_SERVICE_NAME,
+            RealizationCounterService.class,
+            spec -> {});
+
+    Provider<ResolutionPolicyService> resolutionPolicy =
+        settings.getGradle().getSharedServices().registerIfAbsent(
+            RESOLUTION_POLICY_SERVICE_NAME,
+            ResolutionPolicyService.class,
+            spec -> {
+              spec.getParameters().getWhitelist().set(extension.getDependencyResolution().getWhitelist());
+              spec.getParameters().getStatistics().set(extension.getDependencyResolution().getStatistics());
+            });
+    Action<ComponentSelection> rejectPreReleases = selection -> resolutionPolicy.get().rejectPreRelease(selection);
+
+    File taskHistoryFile = new File(projectCacheDir(settings), TASK_HISTORY_FILE);
+    settings.getGradle().settingsEvaluated(s -> {
+      if (ExtensionUtil.enableBuildHistory(extension)) {
+        buildEventsListenerRegistry.onTaskCompletion(
+            settings.getGradle().getSharedServices().registerIfAbsent(
+                TASK_HISTORY_SERVICE_NAME,
+                TaskHistoryService.class,
+                spec -> {
+                  spec.getParameters().getHistoryFile().set(taskHistoryFile);
+                  spec.getParameters().getMaxBuilds().set(ExtensionUtil.buildHistoryMaxBuilds(extension));
+                }));
+      }
+    });
+
     settings.getGradle().settingsEvaluated(s -> {
       if (ExtensionUtil.enableDependencyLocking(extension)) {
         List<String> taskNames = settings.getStartParameter().getTaskNames();
         if (taskNames.stream().anyMatch(UPDATE_DEPENDENCIES_TASK_PATTERN.asMatchPredicate())) {
+          List<String> dependencies =
+              TaskArguments.optionValues(taskNames, UPDATE_DEPENDENCIES_TASK_PATTERN, DEPENDENCY_OPTION);
           // Unfortunately, I guess Gradle does not actually support this use of the API.
           // It works for now. There are tests that fail when it stops working.
-          settings.getStartParameter().setWriteDependencyLocks(true);
-          settings.getStartParameter().setRefreshDependencies(true);
+          if (dependencies.isEmpty()) {
+            settings.getStartParameter().setWriteDependencyLocks(true);
+            if (!ExtensionUtil.refreshDynamicVersionsOnly(extension)) {
+              settings.getStartParameter().setRefreshDependencies(true);
+            }
+          }
+          else {
+            SortedSet<String> modules = new TreeSet<>();
+            selectLockedModules(settings.getRootProject(), new DependencySelector(dependencies), modules);
+            if (modules.isEmpty()) {
+              throw new GradleException("No locked dependency matches " + String.join(", ", dependencies) + ".");
+            }
+            settings.getStartParameter().setLockedDependenciesToUpdate(new ArrayList<>(modules));
+          }
         }
       }
     });
 
-    settings.getGradle().rootProject(p -> rootProject(p, extension));
-    settings.getGradle().beforeProject(p -> allProjects(p, extension));
+    settings.getGradle().rootProject(p ->
+        rootProject(p, extension, buildEventsListenerRegistry, dependencyUpdateService, taskHistoryFile));
+    ConfigurationTimer configurationTimer = new ConfigurationTimer();
+    settings.getGradle().beforeProject(p -> {
+      configurationTimer.projectStarted(p.getPath(), buildScriptName(p), System.nanoTime());
+      allProjects(p, extension, dependencyUpdateService, realizationCounter, rejectPreReleases);
+      configurationTimer.pluginFinished(p.getPath(), System.nanoTime());
+    });
+    settings.getGradle().afterProject(p -> configurationTimer.projectFinished(p.getPath(), System.nanoTime()));
+    settings.getGradle().projectsEvaluated(g -> checkConfigurationBudget(g, extension, configurationTimer));
   }
 
-  private static void rootProject(@NotNull Project project, @NotNull SettingsExtension extension) {
+  private static void rootProject(
+      @NotNull Project project,
+      @NotNull SettingsExtension extension,
+      @NotNull BuildEventsListenerRegistry buildEventsListenerRegistry,
+      @NotNull Provider<DependencyUpdateService> dependencyUpdateService,
+      @NotNull File taskHistoryFile)
+  {
+    if (ExtensionUtil.enableBuildHistory(extension)) {
+      project.getTasks().register(BUILD_TRENDS_TASK_NAME, BuildTrends.class, task -> {
+        task.setDescription("Reports how long the tasks took in the latest builds");
+        task.getHistoryFile().set(taskHistoryFile);
+      });
+    }
+
+    if (ExtensionUtil.recordTaskInputs(extension)) {
+      Provider<TaskInputRecorderService> taskInputRecorder =
+          project.getGradle().getSharedServices().registerIfAbsent(
+              TASK_INPUT_RECORDER_SERVICE_NAME,
+              TaskInputRecorderService.class,
+              spec -> {
+                spec.getParameters().getRootDirectory().set(project.getLayout().getProjectDirectory());
+                spec.getParameters().getRecording().set(project.getLayout().getBuildDirectory().file(TASK_INPUTS_FILE));
+              });
+      // The listener also sees tasks which are up-to-date or taken from the cache.
+      buildEventsListenerRegistry.onTaskCompletion(taskInputRecorder);
+      project.getGradle().getTaskGraph().whenReady(graph -> {
+        for (Task task : graph.getAllTasks()) {
+          if (!(task instanceof CompareTaskInputs)) {
+            taskInputRecorder.get().schedule(task);
+          }
+        }
+      });
+      project.getTasks().register(COMPARE_TASK_INPUTS_TASK_NAME, CompareTaskInputs.class, task -> {
+        task.setDescription("Compares the recorded task inputs of two builds");
+        task.getCurrent().set(project.getLayout().getBuildDirectory().file(TASK_INPUTS_FILE));
+      });
+    }
+
     if (ExtensionUtil.enableDependencyLocking(extension)) {
       project.getTasks().register(UPDATE_DEPENDENCIES_TASK_NAME, UpdateDependencies.class, task -> {
         task.setDescription("Resolves and locks the dependencies of all projects in this build");
+        task.usesService(dependencyUpdateService);
+        task.getDependencyUpdateService().set(dependencyUpdateService);
+        task.getReportDirectory().set(project.getLayout().getBuildDirectory().dir(REPORT_DIRECTORY));
+        // The provider is evaluated after Gradle has applied the command line options.
+        task.dependsOn(project.provider(() -> updateTaskPaths(project, task)));
+      });
+      project.getTasks().register(CHECK_LOCK_CONSISTENCY_TASK_NAME, CheckLockConsistency.class, task -> {
+        task.setDescription("Checks that all projects lock the same version of each module");
+        task.getProjectDirectories().set(project.provider(() -> project.getAllprojects().stream()
+            .collect(Collectors.toMap(Project::getPath, Project::getProjectDir))));
+        task.getDynamicModules().set(project.provider(() -> dynamicModules(project)));
+      });
+      TaskProvider<IndexLockfiles> indexLockfiles =
+          project.getTasks().register(INDEX_LOCKFILES_TASK_NAME, IndexLockfiles.class, task -> {
+            task.setDescription("Indexes the lockfiles of all projects in this build");
+            Path rootDirectory = project.getProjectDir().toPath();
+            for (Project p : project.getAllprojects()) {
+              task.getLockfiles().from(lockfiles(project, p));
+              task.getProjectPaths().put(
+                  IndexLockfiles.relativePath(rootDirectory, p.getProjectDir().toPath()), p.getPath());
+            }
+            task.getRootDirectory().set(project.getLayout().getProjectDirectory());
+            task.getIndex().set(project.getLayout().getBuildDirectory().file(LOCKFILE_INDEX_FILE));
+          });
+      project.getTasks().register(EXPORT_SEED_REPOSITORY_TASK_NAME, ExportSeedRepository.class, task -> {
+        task.setDescription("Exports all locked modules into a repository with Maven layout");
+        // Each project resolves its locked modules from its own repositories.
+        task.getFiles().set(project.provider(() -> {
+          SortedMap<String, File> files = new TreeMap<>();
+          for (Project p : project.getAllprojects()) {
+            SortedSet<String> modules = lockedModules(p);
+            if (!modules.isEmpty()) {
+              files.putAll(SeedRepository.collectFiles(p, modules));
+            }
+          }
+          return files;
+        }));
+        task.getFiles().finalizeValueOnRead();
+        for (Project p : project.getAllprojects()) {
+          task.getLockfiles().from(lockfiles(project, p));
+        }
+        File seedRepository = ExtensionUtil.seedRepository(extension);
+        if (seedRepository != null) {
+          task.getRepository().set(seedRepository);
+        }
+        else {
+          task.getRepository().set(project.getLayout().getBuildDirectory().dir(SEED_REPOSITORY_DIRECTORY));
+        }
+      });
+      project.getTasks().register(QUERY_LOCKFILES_TASK_NAME, QueryLockfiles.class, task -> {
+        task.setDescription("Queries the lockfiles of all projects in this build");
+        task.getIndex().set(indexLockfiles.flatMap(IndexLockfiles::getIndex));
       });
     }
   }
 
-  private static void allProjects(@NotNull Project project, @NotNull SettingsExtension extension) {
+  private static @NotNull Object[] lockfiles(@NotNull Project rootProject, @NotNull Project project) {
+    return new Object[]{
+        new File(project.getProjectDir(), LockState.UNIQUE_LOCKFILE),
+        rootProject.fileTree(new File(project.getProjectDir(), LockState.LOCKFILE_DIRECTORY),
+            tree -> tree.include("*" + LockState.LOCKFILE_SUFFIX)),
+    };
+  }
+
+  private static void allProjects(
+      @NotNull Project project,
+      @NotNull SettingsExtension extension,
+      @NotNull Provider<DependencyUpdateService> dependencyUpdateService,
+      @NotNull Provider<RealizationCounterService> realizationCounter,
+      @NotNull Action<ComponentSelection> rejectPreReleases)
+  {
+    // All hooks must use configureEach, so that unused tasks and configurations are never realized.
+    project.getTasks().configureEach(task -> realizationCounter.get().taskRealized());
+    project.getConfigurations().configureEach(configuration -> realizationCounter.get().configurationRealized());
+
     String defaultJavaEncoding = ExtensionUtil.defaultJavaEncoding(extension);
     if (defaultJavaEncoding != null) {
-      project.getTasks().withType(JavaCompile.class,
+      project.getTasks().withType(JavaCompile.class).configureEach(
           task -> task.getOptions().setEncoding(defaultJavaEncoding));
-      project.getTasks().withType(Javadoc.class,
+      project.getTasks().withType(Javadoc.class).configureEach(
           task -> task.getOptions().setEncoding(defaultJavaEncoding));
     }
 
+    if (ExtensionUtil.normalizeForBuildCache(extension)) {
+      Provider<BuildCacheNormalizationService> buildCacheNormalization =
+          project.getGradle().getSharedServices().registerIfAbsent(
+              BUILD_CACHE_NORMALIZATION_SERVICE_NAME,
+              BuildCacheNormalizationService.class,
+              spec -> {
+                spec.getParameters().getReport().set(ExtensionUtil.buildCacheReport(extension));
+                spec.getParameters().getReportFile().set(
+                    project.getRootProject().getLayout().getBuildDirectory().file(BUILD_CACHE_NORMALIZATION_REPORT));
+              });
+      normalizeForBuildCache(project, buildCacheNormalization);
+    }
+
     if (ExtensionUtil.enableDependencyLocking(extension)) {
       project.getDependencyLocking().lockAllConfigurations();
+      File seedRepository = ExtensionUtil.seedRepository(extension);
+      if (seedRepository != null) {
+        // The build script has not added any repositories yet, so the seed repository comes first.
+        project.getRepositories().maven(repository -> {
+          repository.setName(SEED_REPOSITORY_NAME);
+          repository.setUrl(seedRepository);
+        });
+      }
       LockMode lockMode = ExtensionUtil.dependencyLockingLockMode(extension);
       if (lockMode != null) {
         project.getDependencyLocking().getLockMode().set(lockMode);
       }
+      if (ExtensionUtil.refreshDynamicVersionsOnly(extension) && isUpdatingLocks(project)) {
+        // Only the version listings of dynamic versions and ranges can change the
+        // lock state. Metadata and artifacts of fixed versions stay cached.
+        project.getConfigurations().configureEach(configuration ->
+            configuration.getResolutionStrategy().cacheDynamicVersionsFor(0, TimeUnit.SECONDS));
+      }
+      project.getTasks().register(UPDATE_PROJECT_DEPENDENCIES_TASK_NAME, UpdateProjectDependencies.class, task -> {
+        task.setDescription("Resolves and locks the dependencies of this project");
+        task.usesService(dependencyUpdateService);
+        task.getDependencyUpdateService().set(dependencyUpdateService);
+        task.getProjectPath().set(project.getPath());
+        Set<String> lockedDependenciesToUpdate =
+            Set.copyOf(project.getGradle().getStartParameter().getLockedDependenciesToUpdate());
+        task.getWriteDependencyLocks().set(
+            project.getGradle().getStartParameter().isWriteDependencyLocks() || !lockedDependenciesToUpdate.isEmpty());
+        // The update state always covers all configurations of the project.
+        task.getIncremental().set(
+            ExtensionUtil.incrementalDependencyUpdates(extension) && lockedDependenciesToUpdate.isEmpty());
+        task.getDynamicVersionsExpireAfter().set(ExtensionUtil.dynamicVersionsExpireAfter(extension));
+        task.getProjectDirectory().set(project.getLayout().getProjectDirectory());
+        task.getStateFile().set(project.getLayout().getBuildDirectory().file(UPDATE_STATE_FILE));
+        task.getConfigurationNames().set(project.provider(() -> configurationsToUpdate(project, lockedDependenciesToUpdate).stream()
+            .map(Configuration::getName)
+            .collect(Collectors.toList())));
+        task.getFingerprint().set(project.provider(() -> DependencyFingerprint.project(
+            project, configurationsToUpdate(project, lockedDependenciesToUpdate), ExtensionUtil.resolutionPolicy(extension))));
+        // The lock state only needs the dependency graph. Artifacts are only downloaded on request.
+        boolean resolveArtifacts = ExtensionUtil.resolveArtifactsOnUpdate(extension);
+        boolean deduplicate = ExtensionUtil.deduplicateConfigurations(extension);
+        task.resolveConfigurationsWith(service -> lockConfigurations(
+            project,
+            configurationsToUpdate(project, lockedDependenciesToUpdate),
+            resolveArtifacts,
+            deduplicate ? service : null,
+            ExtensionUtil.resolutionPolicy(extension),
+            !lockedDependenciesToUpdate.isEmpty()));
+      });
+      project.getTasks().register(VERIFY_DEPENDENCY_LOCKS_TASK_NAME, VerifyDependencyLocks.class, task -> {
+        task.setDescription("Verifies that the lockfile of this project matches the declared dependencies");
+        List<String> resolutionPolicy = ExtensionUtil.resolutionPolicy(extension);
+        // The list of configurations is only computed once, when the task needs it.
+        task.getConfigurations().set(project.provider(() -> resolvableConfigurations(project).stream()
+            .collect(Collectors.toMap(Configuration::getName, configuration -> configuration))));
+        task.getConfigurationFingerprints().set(task.getConfigurations().map(configurations ->
+            configurations.values().stream().collect(Collectors.toMap(
+                Configuration::getName,
+                configuration -> DependencyFingerprint.configuration(project, configuration, resolutionPolicy)))));
+        task.getLockfiles().from(
+            project.file(LockState.UNIQUE_LOCKFILE),
+            project.fileTree(LockState.LOCKFILE_DIRECTORY, tree -> tree.include("*" + LockState.LOCKFILE_SUFFIX)));
+        task.getProjectDirectory().set(project.getLayout().getProjectDirectory());
+        task.getVerifiedState().set(project.getLayout().getBuildDirectory().file(VERIFIED_STATE_FILE));
+      });
     }
 
     if (ExtensionUtil.rejectPreReleases(extension)) {
-      DependencyWhitelist whitelist = ExtensionUtil.dependencyResolutionWhitelist(extension);
-      project.getConfigurations().all(configuration -> {
-        configuration.getResolutionStrategy().getComponentSelection().all(selection -> {
-          if (looksLikePreRelease(selection.getCandidate().getVersion()) &&
-              !whitelist.contains(selection.getCandidate())) {
-            selection.reject("gradle-helper: Looks like a pre-release");
-          }
-        });
+      project.getConfigurations().configureEach(configuration ->
+          configuration.getResolutionStrategy().getComponentSelection().all(rejectPreReleases));
+    }
+  }
+
+  private static void normalizeForBuildCache(
+      @NotNull Project project,
+      @NotNull Provider<BuildCacheNormalizationService> service)
+  {
+    // Archives are outputs, and often inputs of other tasks. Their content
+    // must not depend on the time or the platform of the build.
+    project.getTasks().withType(AbstractArchiveTask.class).configureEach(task -> {
+      if (task.isPreserveFileTimestamps()) {
+        task.setPreserveFileTimestamps(false);
+        service.get().changed(task.getPath(), "removed file timestamps");
+      }
+      if (!task.isReproducibleFileOrder()) {
+        task.setReproducibleFileOrder(true);
+        service.get().changed(task.getPath(), "reproducible file order");
+      }
+      // Modes which the build script has set are kept. Whether a file mode
+      // changes is only known when the task copies the file.
+      if (task.getDirMode() == null) {
+        task.setDirMode(BuildCacheNormalization.DIRECTORY_MODE);
+      }
+      String taskPath = task.getPath();
+      task.usesService(service);
+      task.eachFile(details -> {
+        int mode = details.getMode();
+        int normalizedMode = BuildCacheNormalization.fileMode(mode);
+        if (task.getFileMode() == null && normalizedMode != mode) {
+          details.setMode(normalizedMode);
+          service.get().changed(taskPath, "normalized file permissions");
+        }
       });
+    });
+
+    // Compiler arguments are part of the cache key. They can only be checked
+    // after the build script has configured them.
+    Path rootDirectory = project.getRootDir().toPath();
+    project.afterEvaluate(p -> p.getTasks().withType(JavaCompile.class).configureEach(task -> {
+      for (String argument : BuildCacheNormalization.absolutePathArguments(
+          task.getOptions().getCompilerArgs(), rootDirectory)) {
+        service.get().warn(task.getPath(), "has an absolute path in its compiler arguments: " + argument);
+      }
+    }));
+  }
+
+  private static @NotNull String buildScriptName(@NotNull Project project) {
+    Path rootDirectory = project.getRootDir().toPath();
+    Path buildScript = project.getBuildFile().toPath();
+    return buildScript.startsWith(rootDirectory)
+        ? rootDirectory.relativize(buildScript).toString().replace('\\', '/')
+        : buildScript.toString();
+  }
+
+  private static void checkConfigurationBudget(
+      @NotNull Gradle gradle,
+      @NotNull SettingsExtension extension,
+      @NotNull ConfigurationTimer configurationTimer)
+  {
+    LOGGER.info("gradle-helper: Configured {} projects in {} ms, {} ms of them in gradle-helper",
+        configurationTimer.slowestFirst().size(),
+        configurationTimer.total().toMillis(),
+        configurationTimer.pluginTotal().toMillis());
+    String problem = configurationTimer.checkBudget(
+        ExtensionUtil.totalConfigurationBudget(extension),
+        ExtensionUtil.projectConfigurationBudget(extension));
+    if (problem != null) {
+      if (ExtensionUtil.failOnExceededConfigurationBudget(extension)) {
+        throw new GradleException(problem);
+      }
+      LOGGER.warn("gradle-helper: {}", problem);
     }
   }
 
-  private static boolean looksLikePreRelease(@NotNull String version) {
-    return !RELEASED_VERSION_PATTERN.matcher(version).matches();
+  private static @NotNull File projectCacheDir(@NotNull Settings settings) {
+    File projectCacheDir = settings.getStartParameter().getProjectCacheDir();
+    return projectCacheDir != null ? projectCacheDir : new File(settings.getRootDir(), ".gradle");
+  }
+
+  private static @NotNull List<String> updateTaskPaths(@NotNull Project project, @NotNull UpdateDependencies task) {
+    List<String> projectPaths = project.getAllprojects().stream()
+        .map(Project::getPath)
+        .collect(Collectors.toList());
+    if (task.getShard().isPresent()) {
+      Shard shard = Shard.parse(task.getShard().get());
+      // Every shard writes its own report, so the costs cannot be taken from the build directory.
+      Map<String, Double> costs = task.getCostReport().isPresent()
+          ? UpdateReport.readResolutionMillisByProject(task.getCostReport().get().getAsFile().toPath())
+          : Map.of();
+      projectPaths = shard.select(projectPaths, costs);
+      project.getLogger().lifecycle("Updating shard {} with {} projects", shard, projectPaths.size());
+    }
+    return projectPaths.stream()
+        .map(path -> project.project(path).absoluteProjectPath(UPDATE_PROJECT_DEPENDENCIES_TASK_NAME))
+        .collect(Collectors.toList());
+  }
+
+  private static @NotNull List<LockedConfiguration> lockConfigurations(
+      @NotNull Project project,
+      @NotNull List<Configuration> configurations,
+      boolean resolveArtifacts,
+      @Nullable DependencyUpdateService deduplication,
+      @NotNull List<String> resolutionPolicy,
+      boolean keepsLockState)
+  {
+    if (deduplication == null) {
+      return configurations.stream()
+          .map(configuration -> LockedConfiguration.resolve(configuration, resolveArtifacts))
+          .collect(Collectors.toList());
+    }
+    // When only some modules are updated, the versions of all other modules
+    // are taken from the lockfile. They are therefore part of the key.
+    LockState lockState = keepsLockState ? LockState.read(project.getProjectDir().toPath()) : null;
+    List<LockedConfiguration> lockedConfigurations = new ArrayList<>();
+    for (Configuration configuration : configurations) {
+      String key = DependencyFingerprint.equivalenceKey(project, configuration, resolutionPolicy,
+          lockState == null ? Set.of() : lockState.modules(configuration.getName()));
+      LockedConfiguration equivalent = deduplication.equivalentConfiguration(key);
+      if (equivalent == null) {
+        LockedConfiguration lockedConfiguration = LockedConfiguration.resolve(configuration, resolveArtifacts);
+        deduplication.resolvedConfiguration(key, lockedConfiguration);
+        lockedConfigurations.add(lockedConfiguration);
+      }
+      else {
+        lockedConfigurations.add(LockedConfiguration.resolveEquivalent(configuration, equivalent, resolveArtifacts));
+      }
+    }
+    return lockedConfigurations;
+  }
+
+  private static boolean isUpdatingLocks(@NotNull Project project) {
+    return project.getGradle().getStartParameter().isWriteDependencyLocks() ||
+           !project.getGradle().getStartParameter().getLockedDependenciesToUpdate().isEmpty();
+  }
+
+  private static @NotNull List<Configuration> configurationsToUpdate(
+      @NotNull Project project,
+      @NotNull Set<String> lockedDependenciesToUpdate)
+  {
+    if (lockedDependenciesToUpdate.isEmpty()) {
+      return resolvableConfigurations(project);
+    }
+    Set<String> names = LockState.read(project.getProjectDir().toPath())
+        .configurationsLocking(lockedDependenciesToUpdate);
+    return resolvableConfigurations(project).stream()
+        .filter(configuration -> names.contains(configuration.getName()))
+        .collect(Collectors.toList());
+  }
+
+  private static @NotNull List<Configuration> resolvableConfigurations(@NotNull Project project) {
+    return project.getConfigurations().stream()
+        .filter(Configuration::isCanBeResolved)
+        .collect(Collectors.toList());
+  }
+
+  private static @NotNull Set<String> dynamicModules(@NotNull Project project) {
+    Set<String> modules = new HashSet<>();
+    for (Project p : project.getAllprojects()) {
+      for (Configuration configuration : p.getConfigurations()) {
+        for (Dependency dependency : configuration.getDependencies()) {
+          if (dependency instanceof ExternalDependency &&
+              DependencyFingerprint.isDynamicVersion(((ExternalDependency) dependency).getVersionConstraint())) {
+            modules.add(dependency.getGroup() + ":" + dependency.getName());
+          }
+        }
+        for (DependencyConstraint constraint : configuration.getDependencyConstraints()) {
+          if (DependencyFingerprint.isDynamicVersion(constraint.getVersionConstraint())) {
+            modules.add(constraint.getGroup() + ":" + constraint.getName());
+          }
+        }
+      }
+    }
+    return modules;
+  }
+
+  private static @NotNull SortedSet<String> lockedModules(@NotNull Project project) {
+    SortedSet<String> modules = new TreeSet<>();
+    LockState lockState = LockState.read(project.getProjectDir().toPath());
+    for (String configuration : lockState.configurations()) {
+      modules.addAll(lockState.modules(configuration));
+    }
+    return modules;
+  }
+
+  private static void selectLockedModules(
+      @NotNull ProjectDescriptor project,
+      @NotNull DependencySelector selector,
+      @NotNull Set<String> modules)
+  {
+    modules.addAll(selector.selectModules(LockState.read(project.getProjectDir().toPath())));
+    for (ProjectDescriptor child : project.getChildren()) {
+      selectLockedModules(child, selector, modules);
+    }
   }
 }
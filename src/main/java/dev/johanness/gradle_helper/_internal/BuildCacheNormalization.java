@@ -0,0 +1,34 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public final class BuildCacheNormalization {
+  private BuildCacheNormalization() {} // Cannot be instantiated.
+
+  public static final int DIRECTORY_MODE = 0755;
+
+  // Windows does not know POSIX permissions, and the umask differs between
+  // machines. Removes write permissions of group and others, and lets the
+  // owner decide whether group and others may execute the file. Never adds
+  // permissions, so files which are only readable by the owner stay private.
+  public static int fileMode(int mode) {
+    return mode & ((mode & 0100) != 0 ? 0755 : 0644);
+  }
+
+  // Returns the arguments which contain the given directory. They end up in
+  // the cache key as they are, so other checkouts never get a cache hit.
+  public static @NotNull List<String> absolutePathArguments(
+      @NotNull List<String> arguments,
+      @NotNull Path directory)
+  {
+    String path = directory.toAbsolutePath().toString();
+    String portablePath = path.replace('\\', '/');
+    return arguments.stream()
+        .filter(argument -> argument.contains(path) || argument.contains(portablePath))
+        .collect(Collectors.toList());
+  }
+}
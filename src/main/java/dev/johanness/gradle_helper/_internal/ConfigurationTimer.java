@@ -0,0 +1,161 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Measures how long the configuration of each project takes. Projects can
+// be evaluated while another project is evaluated (evaluationDependsOn). The
+// time is then only attributed to the inner project.
+public final class ConfigurationTimer {
+  private static final int SLOWEST_PROJECTS = 5;
+
+  private final @NotNull Map<String, ProjectTime> projects = new HashMap<>();
+  private final @NotNull Deque<Frame> running = new ArrayDeque<>();
+
+  public synchronized void projectStarted(@NotNull String projectPath, @NotNull String buildScript, long nanos) {
+    Frame parent = running.peek();
+    if (parent != null) {
+      parent.pause(nanos);
+    }
+    running.push(new Frame(projectPath, buildScript, nanos));
+  }
+
+  // Called when the hooks of this plugin are done with the project.
+  public synchronized void pluginFinished(@NotNull String projectPath, long nanos) {
+    Frame frame = running.peek();
+    if (frame != null && frame.projectPath.equals(projectPath)) {
+      frame.pluginNanos = nanos - frame.startedAt;
+    }
+  }
+
+  public synchronized void projectFinished(@NotNull String projectPath, long nanos) {
+    Frame frame = running.peek();
+    if (frame == null || !frame.projectPath.equals(projectPath)) {
+      return; // The project was started before the plugin was applied.
+    }
+    running.pop();
+    frame.pause(nanos);
+    projects.put(projectPath, new ProjectTime(
+        projectPath, frame.buildScript, Duration.ofNanos(frame.nanos), Duration.ofNanos(frame.pluginNanos)));
+    Frame parent = running.peek();
+    if (parent != null) {
+      parent.resumedAt = nanos;
+    }
+  }
+
+  public synchronized @NotNull List<ProjectTime> slowestFirst() {
+    return projects.values().stream()
+        .sorted(Comparator.comparing(ProjectTime::getDuration).reversed().thenComparing(ProjectTime::getProjectPath))
+        .collect(Collectors.toList());
+  }
+
+  public synchronized @NotNull Duration total() {
+    return projects.values().stream().map(ProjectTime::getDuration).reduce(Duration.ZERO, Duration::plus);
+  }
+
+  public synchronized @NotNull Duration pluginTotal() {
+    return projects.values().stream().map(ProjectTime::getPluginDuration).reduce(Duration.ZERO, Duration::plus);
+  }
+
+  // Returns a description of the exceeded budget, or null.
+  public @Nullable String checkBudget(@Nullable Duration totalBudget, @Nullable Duration projectBudget) {
+    List<ProjectTime> slowest = slowestFirst();
+    Duration total = total();
+    List<String> problems = new ArrayList<>();
+    if (totalBudget != null && total.compareTo(totalBudget) > 0) {
+      problems.add("Configuration took " + seconds(total) + ", which exceeds the budget of " + seconds(totalBudget) + ".");
+    }
+    if (projectBudget != null) {
+      List<String> projectsOverBudget = slowest.stream()
+          .filter(project -> project.duration.compareTo(projectBudget) > 0)
+          .map(ProjectTime::getProjectPath)
+          .collect(Collectors.toList());
+      if (!projectsOverBudget.isEmpty()) {
+        problems.add("The configuration of " + String.join(", ", projectsOverBudget) +
+                     " exceeds the budget of " + seconds(projectBudget) + " per project.");
+      }
+    }
+    if (problems.isEmpty()) {
+      return null;
+    }
+    StringBuilder message = new StringBuilder(String.join(" ", problems));
+    message.append(" Slowest build scripts:");
+    for (ProjectTime project : slowest.subList(0, Math.min(SLOWEST_PROJECTS, slowest.size()))) {
+      message.append("\n  ").append(project.buildScript)
+          .append(" (").append(project.projectPath).append("): ").append(seconds(project.duration))
+          .append(", gradle-helper: ").append(seconds(project.pluginDuration));
+    }
+    return message.toString();
+  }
+
+  private static @NotNull String seconds(@NotNull Duration duration) {
+    return String.format(Locale.ROOT, "%.2f s", duration.toNanos() / 1_000_000_000.0);
+  }
+
+  private static final class Frame {
+    private final @NotNull String projectPath;
+    private final @NotNull String buildScript;
+    private final long startedAt;
+    private long resumedAt;
+    private long nanos;
+    private long pluginNanos;
+
+    private Frame(@NotNull String projectPath, @NotNull String buildScript, long startedAt) {
+      this.projectPath = projectPath;
+      this.buildScript = buildScript;
+      this.startedAt = startedAt;
+      this.resumedAt = startedAt;
+    }
+
+    private void pause(long nanos) {
+      this.nanos += nanos - resumedAt;
+      resumedAt = nanos;
+    }
+  }
+
+  public static final class ProjectTime {
+    private final @NotNull String projectPath;
+    private final @NotNull String buildScript;
+    private final @NotNull Duration duration;
+    private final @NotNull Duration pluginDuration;
+
+    ProjectTime(
+        @NotNull String projectPath,
+        @NotNull String buildScript,
+        @NotNull Duration duration,
+        @NotNull Duration pluginDuration)
+    {
+      this.projectPath = projectPath;
+      this.buildScript = buildScript;
+      this.duration = duration;
+      this.pluginDuration = pluginDuration;
+    }
+
+    public @NotNull String getProjectPath() {
+      return projectPath;
+    }
+
+    public @NotNull String getBuildScript() {
+      return buildScript;
+    }
+
+    public @NotNull Duration getDuration() {
+      return duration;
+    }
+
+    public @NotNull Duration getPluginDuration() {
+      return pluginDuration;
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.Dependency;
+import org.gradle.api.artifacts.DependencyConstraint;
+import org.gradle.api.artifacts.ExcludeRule;
+import org.gradle.api.artifacts.ExternalDependency;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.artifacts.ProjectDependency;
+import org.gradle.api.artifacts.VersionConstraint;
+import org.gradle.api.artifacts.repositories.ArtifactRepository;
+import org.gradle.api.artifacts.repositories.UrlArtifactRepository;
+import org.gradle.api.attributes.Attribute;
+import org.gradle.api.attributes.AttributeContainer;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public final class DependencyFingerprint {
+  private DependencyFingerprint() {} // Cannot be instantiated.
+
+  public static @NotNull String project(
+      @NotNull Project project,
+      @NotNull Collection<Configuration> configurations,
+      @NotNull List<String> resolutionPolicy)
+  {
+    Hasher hasher = new Hasher();
+    hasher.putInt(resolutionPolicy.size());
+    resolutionPolicy.forEach(hasher::putString);
+    putRepositories(hasher, project);
+    putConfigurations(hasher, configurations, new HashSet<>());
+    return hasher.hash();
+  }
+
+  public static @NotNull String configuration(
+      @NotNull Project project,
+      @NotNull Configuration configuration,
+      @NotNull List<String> resolutionPolicy)
+  {
+    return project(project, List.of(configuration), resolutionPolicy);
+  }
+
+  // Configurations with the same key resolve to the same modules, even if
+  // they have different names or belong to different projects.
+  public static @NotNull String equivalenceKey(
+      @NotNull Project project,
+      @NotNull Configuration configuration,
+      @NotNull List<String> resolutionPolicy,
+      @NotNull Collection<String> lockedModules)
+  {
+    Hasher hasher = new Hasher();
+    hasher.putInt(resolutionPolicy.size());
+    resolutionPolicy.forEach(hasher::putString);
+    putRepositories(hasher, project);
+    putConfiguration(hasher, configuration, new HashSet<>());
+    hasher.putInt(lockedModules.size());
+    lockedModules.stream().sorted().forEach(hasher::putString);
+    return hasher.hash();
+  }
+
+  public static @NotNull String withLockState(@NotNull String fingerprint, @NotNull LockState lockState) {
+    Hasher hasher = new Hasher();
+    hasher.putString(fingerprint);
+    hasher.putString(lockState.fingerprint());
+    return hasher.hash();
+  }
+
+  private static void putConfigurations(
+      @NotNull Hasher hasher,
+      @NotNull Collection<Configuration> configurations,
+      @NotNull Set<String> visitedProjects)
+  {
+    List<Configuration> sortedConfigurations = configurations.stream()
+        .sorted(Comparator.comparing(Configuration::getName))
+        .collect(Collectors.toList());
+    hasher.putInt(sortedConfigurations.size());
+    for (Configuration configuration : sortedConfigurations) {
+      hasher.putString(configuration.getName());
+      putConfiguration(hasher, configuration, visitedProjects);
+    }
+  }
+
+  public static boolean isDynamicVersion(@Nullable String version) {
+    return version != null &&
+           (version.endsWith("+") ||
+            version.startsWith("latest.") ||
+            version.startsWith("[") ||
+            version.startsWith("]") ||
+            version.startsWith("("));
+  }
+
+  public static boolean isDynamicVersion(@NotNull VersionConstraint constraint) {
+    return isDynamicVersion(constraint.getRequiredVersion()) ||
+           isDynamicVersion(constraint.getPreferredVersion()) ||
+           isDynamicVersion(constraint.getStrictVersion());
+  }
+
+  private static void putRepositories(@NotNull Hasher hasher, @NotNull Project project) {
+    hasher.putInt(project.getRepositories().size());
+    for (ArtifactRepository repository : project.getRepositories()) {
+      hasher.putString(repository.getName());
+      if (repository instanceof UrlArtifactRepository) {
+        hasher.putString(String.valueOf(((UrlArtifactRepository) repository).getUrl()));
+      }
+    }
+  }
+
+  private static void putConfiguration(
+      @NotNull Hasher hasher,
+      @NotNull Configuration configuration,
+      @NotNull Set<String> visitedProjects)
+  {
+    putAttributes(hasher, configuration.getAttributes());
+    hasher.putBoolean(configuration.isTransitive());
+    putExcludeRules(hasher, configuration.getExcludeRules());
+
+    List<Dependency> dependencies = configuration.getAllDependencies().stream()
+        .sorted(Comparator.comparing(DependencyFingerprint::coordinates))
+        .collect(Collectors.toList());
+    hasher.putInt(dependencies.size());
+    for (Dependency dependency : dependencies) {
+      putDependency(hasher, dependency, visitedProjects);
+    }
+
+    List<DependencyConstraint> constraints = configuration.getAllDependencyConstraints().stream()
+        .sorted(Comparator.comparing(constraint -> constraint.getGroup() + ":" + constraint.getName()))
+        .collect(Collectors.toList());
+    hasher.putInt(constraints.size());
+    for (DependencyConstraint constraint : constraints) {
+      hasher.putString(constraint.getGroup() + ":" + constraint.getName());
+      putVersionConstraint(hasher, constraint.getVersionConstraint());
+      putAttributes(hasher, constraint.getAttributes());
+    }
+
+    List<String> forcedModules = configuration.getResolutionStrategy().getForcedModules().stream()
+        .map(DependencyFingerprint::coordinates)
+        .sorted()
+        .collect(Collectors.toList());
+    hasher.putInt(forcedModules.size());
+    forcedModules.forEach(hasher::putString);
+  }
+
+  private static void putDependency(
+      @NotNull Hasher hasher,
+      @NotNull Dependency dependency,
+      @NotNull Set<String> visitedProjects)
+  {
+    hasher.putString(coordinates(dependency));
+    if (dependency instanceof ProjectDependency) {
+      // The dependencies of the other project end up in the lock state of this project.
+      Project dependencyProject = ((ProjectDependency) dependency).getDependencyProject();
+      hasher.putString(dependencyProject.getPath());
+      if (visitedProjects.add(dependencyProject.getPath())) {
+        putConfigurations(hasher, dependencyProject.getConfigurations(), visitedProjects);
+      }
+    }
+    if (dependency instanceof ExternalDependency) {
+      putVersionConstraint(hasher, ((ExternalDependency) dependency).getVersionConstraint());
+    }
+    if (dependency instanceof ModuleDependency) {
+      ModuleDependency moduleDependency = (ModuleDependency) dependency;
+      hasher.putString(String.valueOf(moduleDependency.getTargetConfiguration()));
+      hasher.putBoolean(moduleDependency.isTransitive());
+      putExcludeRules(hasher, moduleDependency.getExcludeRules());
+      putAttributes(hasher, moduleDependency.getAttributes());
+    }
+  }
+
+  private static void putExcludeRules(@NotNull Hasher hasher, @NotNull Set<ExcludeRule> rules) {
+    List<String> excludes = rules.stream()
+        .map(rule -> rule.getGroup() + ":" + rule.getModule())
+        .sorted()
+        .collect(Collectors.toList());
+    hasher.putInt(excludes.size());
+    excludes.forEach(hasher::putString);
+  }
+
+  private static void putVersionConstraint(@NotNull Hasher hasher, @NotNull VersionConstraint constraint) {
+    hasher.putString(constraint.getRequiredVersion());
+    hasher.putString(constraint.getPreferredVersion());
+    hasher.putString(constraint.getStrictVersion());
+    hasher.putString(String.join(",", constraint.getRejectedVersions()));
+    hasher.putString(String.valueOf(constraint.getBranch()));
+  }
+
+  private static void putAttributes(@NotNull Hasher hasher, @NotNull AttributeContainer attributes) {
+    List<Attribute<?>> keys = attributes.keySet().stream()
+        .sorted(Comparator.comparing(Attribute::getName))
+        .collect(Collectors.toList());
+    hasher.putInt(keys.size());
+    for (Attribute<?> key : keys) {
+      hasher.putString(key.getName());
+      hasher.putString(String.valueOf(attributes.getAttribute(key)));
+    }
+  }
+
+  private static @NotNull String coordinates(@NotNull Dependency dependency) {
+    return dependency.getGroup() + ":" + dependency.getName() + ":" + dependency.getVersion();
+  }
+
+  private static @NotNull String coordinates(@NotNull ModuleVersionSelector selector) {
+    return selector.getGroup() + ":" + selector.getName() + ":" + selector.getVersion();
+  }
+}
@@ -0,0 +1,39 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Selects locked modules by glob expressions like "com.fasterxml.jackson*:*".
+// The version can be omitted, in which case all versions are matched.
+public final class DependencySelector {
+  private final @NotNull DependencyWhitelist expressions;
+
+  public DependencySelector(@NotNull List<String> expressions) {
+    this.expressions = new DependencyWhitelist(expressions.stream()
+        .map(expression -> expression.chars().filter(c -> c == ':').count() < 2 ? expression + ":*" : expression)
+        .collect(Collectors.toList()));
+  }
+
+  public boolean matches(@NotNull String entry) {
+    String[] parts = entry.split(":", 3);
+    return parts.length == 3 && expressions.contains(parts[0], parts[1], parts[2]);
+  }
+
+  // Returns "group:module" of all entries in the lock state which match any expression.
+  public @NotNull SortedSet<String> selectModules(@NotNull LockState lockState) {
+    SortedSet<String> modules = new TreeSet<>();
+    for (String configuration : lockState.configurations()) {
+      for (String entry : lockState.modules(configuration)) {
+        if (matches(entry)) {
+          modules.add(LockState.moduleOf(entry));
+        }
+      }
+    }
+    return Collections.unmodifiableSortedSet(modules);
+  }
+}
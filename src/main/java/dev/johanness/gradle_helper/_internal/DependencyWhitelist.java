@@ -2,58 +2,114 @@
 
 import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 public final class DependencyWhitelist {
-  private static final @NotNull Pattern SPECIAL_SEQUENCE_PATTERN =
-      Pattern.compile("\\*|[\\\\]{2}|\\\\\\*");
+  private static final int PARTS = 3; // group, module and version
 
-  private final @NotNull List<Pattern> whitelistPatterns;
+  // Entries with a literal group and module are found by hash lookups. Only
+  // entries with wildcards in the group or module have to be scanned.
+  private final @NotNull Map<String, Map<String, List<Entry>>> entriesByGroupAndModule = new HashMap<>();
+  private final @NotNull Map<String, List<Entry>> entriesByGroup = new HashMap<>();
+  private final @NotNull List<Entry> otherEntries = new ArrayList<>();
 
   public DependencyWhitelist(@NotNull List<String> whitelist) {
-    whitelistPatterns = whitelist.stream()
-        .map(DependencyWhitelist::toPattern)
-        .collect(Collectors.toList());
+    for (int index = 0; index < whitelist.size(); index++) {
+      List<Glob> parts = parse(whitelist.get(index));
+      if (parts.size() != PARTS) {
+        continue; // The expression can never match since wildcards do not match colons.
+      }
+      Entry entry = new Entry(index, parts.get(0), parts.get(1), parts.get(2));
+      String group = entry.group.literal();
+      String module = entry.module.literal();
+      if (group != null && module != null) {
+        entriesByGroupAndModule
+            .computeIfAbsent(group, g -> new HashMap<>())
+            .computeIfAbsent(module, m -> new ArrayList<>())
+            .add(entry);
+      }
+      else if (group != null) {
+        entriesByGroup.computeIfAbsent(group, g -> new ArrayList<>()).add(entry);
+      }
+      else {
+        otherEntries.add(entry);
+      }
+    }
   }
 
   public boolean contains(@NotNull ModuleComponentIdentifier candidate) {
-    String stringRepresentation = candidate.getDisplayName();
-    for (Pattern pattern : whitelistPatterns) {
-      if (pattern.matcher(stringRepresentation).matches()) {
-        return true;
+    return indexOf(candidate) >= 0;
+  }
+
+  public boolean contains(@NotNull String group, @NotNull String module, @NotNull String version) {
+    return indexOf(group, module, version) >= 0;
+  }
+
+  public int indexOf(@NotNull ModuleComponentIdentifier candidate) {
+    return indexOf(candidate.getGroup(), candidate.getModule(), candidate.getVersion());
+  }
+
+  // Returns the position of a matching expression in the list given to the
+  // constructor, or -1. If multiple expressions match, any of them may be returned.
+  public int indexOf(@NotNull String group, @NotNull String module, @NotNull String version) {
+    Map<String, List<Entry>> entriesByModule = entriesByGroupAndModule.get(group);
+    int index = entriesByModule == null ? -1 : indexOfAny(entriesByModule.get(module), group, module, version);
+    if (index < 0) {
+      index = indexOfAny(entriesByGroup.get(group), group, module, version);
+    }
+    if (index < 0) {
+      index = indexOfAny(otherEntries, group, module, version);
+    }
+    return index;
+  }
+
+  private static int indexOfAny(
+      @Nullable List<Entry> entries,
+      @NotNull String group,
+      @NotNull String module,
+      @NotNull String version)
+  {
+    if (entries != null) {
+      for (Entry entry : entries) {
+        if (entry.matches(group, module, version)) {
+          return entry.index;
+        }
       }
     }
-    return false;
+    return -1;
   }
 
-  private static @NotNull Pattern toPattern(@NotNull String globExpression) {
-    StringBuilder pattern = new StringBuilder();
-    StringBuilder mustBeQuoted = new StringBuilder();
-    Matcher matcher = SPECIAL_SEQUENCE_PATTERN.matcher(globExpression);
-    while (matcher.find()) {
-      matcher.appendReplacement(mustBeQuoted, "");
-      switch (matcher.group()) {
-        case "*":
-          pattern.append(Pattern.quote(remove(mustBeQuoted)));
-          pattern.append("[^:]*");
-          break;
-        case "\\\\":
-          mustBeQuoted.append("\\");
-          break;
-        case "\\*":
-          mustBeQuoted.append('*');
-          break;
-        default:
-          throw new AssertionError("Must not match regex");
+  private static @NotNull List<Glob> parse(@NotNull String globExpression) {
+    List<Glob> parts = new ArrayList<>(PARTS);
+    List<String> pieces = new ArrayList<>();
+    StringBuilder piece = new StringBuilder();
+    for (int i = 0; i < globExpression.length(); i++) {
+      char c = globExpression.charAt(i);
+      char next = i + 1 < globExpression.length() ? globExpression.charAt(i + 1) : 0;
+      if (c == '\\' && (next == '\\' || next == '*')) {
+        piece.append(next);
+        i++;
+      }
+      else if (c == '*') {
+        pieces.add(remove(piece));
+      }
+      else if (c == ':') {
+        pieces.add(remove(piece));
+        parts.add(new Glob(pieces));
+        pieces.clear();
+      }
+      else {
+        piece.append(c);
       }
     }
-    matcher.appendTail(mustBeQuoted);
-    pattern.append(Pattern.quote(remove(mustBeQuoted)));
-    return Pattern.compile(pattern.toString());
+    pieces.add(remove(piece));
+    parts.add(new Glob(pieces));
+    return parts;
   }
 
   private static @NotNull String remove(@NotNull StringBuilder stringBuilder) {
@@ -61,4 +117,24 @@ public boolean contains(@NotNull ModuleComponentIdentifier candidate) {
     stringBuilder.setLength(0);
     return str;
   }
+
+  private static final class Entry {
+    private final int index;
+    private final @NotNull Glob group;
+    private final @NotNull Glob module;
+    private final @NotNull Glob version;
+
+    private Entry(int index, @NotNull Glob group, @NotNull Glob module, @NotNull Glob version) {
+      this.index = index;
+      this.group = group;
+      this.module = module;
+      this.version = version;
+    }
+
+    private boolean matches(@NotNull String group, @NotNull String module, @NotNull String version) {
+      return this.group.matches(group) &&
+             this.module.matches(module) &&
+             this.version.matches(version);
+    }
+  }
 }
@@ -2,10 +2,15 @@
 
 import dev.johanness.gradle_helper.extension.SettingsExtension;
 import org.gradle.api.artifacts.dsl.LockMode;
+import org.gradle.api.file.Directory;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 
 public final class ExtensionUtil {
   private ExtensionUtil() {} // Cannot be instantiated.
@@ -26,13 +31,73 @@ public static boolean enableDependencyLocking(@NotNull SettingsExtension extensi
     return extension.getDependencyLocking().getLockMode().getOrNull();
   }
 
+  public static boolean incrementalDependencyUpdates(@NotNull SettingsExtension extension) {
+    return extension.getDependencyLocking().getIncrementalUpdates().getOrElse(false);
+  }
+
+  public static @NotNull Duration dynamicVersionsExpireAfter(@NotNull SettingsExtension extension) {
+    // Gradle caches dynamic versions for 24 hours by default
+    return extension.getDependencyLocking().getDynamicVersionsExpireAfter().getOrElse(Duration.ofHours(24));
+  }
+
+  public static boolean refreshDynamicVersionsOnly(@NotNull SettingsExtension extension) {
+    return extension.getDependencyLocking().getRefreshDynamicVersionsOnly().getOrElse(false);
+  }
+
+  public static boolean resolveArtifactsOnUpdate(@NotNull SettingsExtension extension) {
+    return extension.getDependencyLocking().getResolveArtifacts().getOrElse(false);
+  }
+
+  public static boolean deduplicateConfigurations(@NotNull SettingsExtension extension) {
+    return extension.getDependencyLocking().getDeduplicateConfigurations().getOrElse(false);
+  }
+
+  public static @Nullable File seedRepository(@NotNull SettingsExtension extension) {
+    return extension.getDependencyLocking().getSeedRepository().map(Directory::getAsFile).getOrNull();
+  }
+
   public static boolean rejectPreReleases(@NotNull SettingsExtension extension) {
     return extension.getDependencyResolution().getRejectPreReleases().getOrElse(false);
   }
 
-  public static @NotNull DependencyWhitelist dependencyResolutionWhitelist(@NotNull SettingsExtension extension) {
-    return new DependencyWhitelist(
-        extension.getDependencyResolution().getWhitelist()
-            .getOrElse(Collections.emptyList()));
+  public static boolean normalizeForBuildCache(@NotNull SettingsExtension extension) {
+    return extension.getBuildCache().getNormalize().getOrElse(false);
+  }
+
+  public static boolean buildCacheReport(@NotNull SettingsExtension extension) {
+    return extension.getBuildCache().getReport().getOrElse(false);
+  }
+
+  public static boolean recordTaskInputs(@NotNull SettingsExtension extension) {
+    return extension.getBuildCache().getRecordTaskInputs().getOrElse(false);
+  }
+
+  public static boolean enableBuildHistory(@NotNull SettingsExtension extension) {
+    return extension.getBuildHistory().getEnable().getOrElse(false);
+  }
+
+  public static int buildHistoryMaxBuilds(@NotNull SettingsExtension extension) {
+    return extension.getBuildHistory().getMaxBuilds().getOrElse(100);
+  }
+
+  public static @Nullable Duration totalConfigurationBudget(@NotNull SettingsExtension extension) {
+    return extension.getConfigurationBudget().getTotal().getOrNull();
+  }
+
+  public static @Nullable Duration projectConfigurationBudget(@NotNull SettingsExtension extension) {
+    return extension.getConfigurationBudget().getPerProject().getOrNull();
+  }
+
+  public static boolean failOnExceededConfigurationBudget(@NotNull SettingsExtension extension) {
+    return extension.getConfigurationBudget().getFailBuild().getOrElse(false);
+  }
+
+  public static @NotNull List<String> resolutionPolicy(@NotNull SettingsExtension extension) {
+    List<String> policy = new ArrayList<>();
+    policy.add("rejectPreReleases=" + rejectPreReleases(extension));
+    extension.getDependencyResolution().getWhitelist()
+        .getOrElse(Collections.emptyList())
+        .forEach(pattern -> policy.add("whitelist=" + pattern));
+    return policy;
   }
 }
@@ -0,0 +1,45 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+final class Glob {
+  private final @NotNull String @NotNull [] pieces;
+
+  Glob(@NotNull List<String> pieces) {
+    this.pieces = pieces.toArray(new String[0]);
+  }
+
+  @Contract(pure = true)
+  @Nullable String literal() {
+    return pieces.length == 1 ? pieces[0] : null;
+  }
+
+  @Contract(pure = true)
+  boolean matches(@NotNull String string) {
+    if (pieces.length == 1) {
+      return string.equals(pieces[0]);
+    }
+
+    String first = pieces[0];
+    String last = pieces[pieces.length - 1];
+    int end = string.length() - last.length();
+    if (end < first.length() || !string.startsWith(first) || !string.endsWith(last)) {
+      return false;
+    }
+
+    // Matching each piece at its leftmost position leaves the most room for the remaining pieces.
+    int position = first.length();
+    for (int i = 1; i < pieces.length - 1; i++) {
+      int index = string.indexOf(pieces[i], position);
+      if (index < 0 || index + pieces[i].length() > end) {
+        return false;
+      }
+      position = index + pieces[i].length();
+    }
+    return true;
+  }
+}
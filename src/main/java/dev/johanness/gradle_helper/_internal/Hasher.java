@@ -0,0 +1,54 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+final class Hasher {
+  private static final @NotNull String ALGORITHM = "SHA-256";
+  private static final char @NotNull [] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final @NotNull MessageDigest digest;
+
+  Hasher() {
+    try {
+      digest = MessageDigest.getInstance(ALGORITHM);
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(ALGORITHM + " must be supported by every Java platform", e);
+    }
+  }
+
+  void putInt(int value) {
+    digest.update((byte) (value >>> 24));
+    digest.update((byte) (value >>> 16));
+    digest.update((byte) (value >>> 8));
+    digest.update((byte) value);
+  }
+
+  void putBoolean(boolean value) {
+    digest.update((byte) (value ? 1 : 0));
+  }
+
+  void putString(@NotNull String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    putInt(bytes.length);
+    digest.update(bytes);
+  }
+
+  void putBytes(byte @NotNull [] bytes, int offset, int length) {
+    digest.update(bytes, offset, length);
+  }
+
+  @NotNull String hash() {
+    byte[] hash = digest.digest();
+    char[] chars = new char[hash.length * 2];
+    for (int i = 0; i < hash.length; i++) {
+      chars[2 * i] = HEX_DIGITS[(hash[i] >>> 4) & 0xF];
+      chars[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+    }
+    return new String(chars);
+  }
+}
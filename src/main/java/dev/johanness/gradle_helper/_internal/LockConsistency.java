@@ -0,0 +1,61 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public final class LockConsistency {
+  private LockConsistency() {} // Cannot be instantiated.
+
+  // Returns a message for every module which is locked in different versions
+  // by different projects. Only modules with a dynamic version in any of the
+  // build scripts are checked, as the shards of an update may resolve them to
+  // different versions. A project may lock different versions of a module in
+  // different configurations. Projects are only compared by the set of
+  // versions they lock.
+  public static @NotNull List<String> check(
+      @NotNull Map<String, LockState> lockStatesByProject,
+      @NotNull Set<String> dynamicModules)
+  {
+    SortedMap<String, Map<String, SortedSet<String>>> versionsByProjectByModule = new TreeMap<>();
+    lockStatesByProject.forEach((project, lockState) -> {
+      for (String configuration : lockState.configurations()) {
+        for (String entry : lockState.modules(configuration)) {
+          String module = LockState.moduleOf(entry);
+          if (dynamicModules.contains(module)) {
+            versionsByProjectByModule
+                .computeIfAbsent(module, m -> new TreeMap<>())
+                .computeIfAbsent(project, p -> new TreeSet<>())
+                .add(entry.substring(module.length() + 1));
+          }
+        }
+      }
+    });
+
+    List<String> messages = new ArrayList<>();
+    versionsByProjectByModule.forEach((module, versionsByProject) -> {
+      if (new HashSet<>(versionsByProject.values()).size() > 1) {
+        SortedMap<String, SortedSet<String>> projectsByVersion = new TreeMap<>();
+        versionsByProject.forEach((project, versions) -> {
+          for (String version : versions) {
+            projectsByVersion.computeIfAbsent(version, v -> new TreeSet<>()).add(project);
+          }
+        });
+        StringBuilder message = new StringBuilder(module).append(" is locked in different versions:");
+        projectsByVersion.forEach((version, projects) ->
+            message.append(' ').append(version).append(" in ").append(String.join(", ", projects)).append(';'));
+        message.setLength(message.length() - 1);
+        messages.add(message.toString());
+      }
+    });
+    return messages;
+  }
+}
@@ -0,0 +1,194 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public final class LockState {
+  public static final @NotNull String UNIQUE_LOCKFILE = "gradle.lockfile";
+  public static final @NotNull String LOCKFILE_DIRECTORY = "gradle/dependency-locks";
+  public static final @NotNull String LOCKFILE_SUFFIX = ".lockfile";
+  private static final @NotNull String BUILDSCRIPT_PREFIX = "buildscript-";
+  private static final @NotNull String EMPTY_KEY = "empty";
+
+  private final @NotNull SortedMap<String, SortedSet<String>> modulesByConfiguration;
+
+  private LockState(@NotNull SortedMap<String, SortedSet<String>> modulesByConfiguration) {
+    this.modulesByConfiguration = modulesByConfiguration;
+  }
+
+  @Contract(pure = true)
+  public static @NotNull LockState of(@NotNull Map<String, ? extends Collection<String>> modulesByConfiguration) {
+    SortedMap<String, SortedSet<String>> copy = new TreeMap<>();
+    modulesByConfiguration.forEach((configuration, modules) -> copy.put(configuration, new TreeSet<>(modules)));
+    return new LockState(copy);
+  }
+
+  public static @NotNull LockState read(@NotNull Path projectDir) {
+    SortedMap<String, SortedSet<String>> modulesByConfiguration = new TreeMap<>();
+    try {
+      Path uniqueLockfile = projectDir.resolve(UNIQUE_LOCKFILE);
+      if (Files.isRegularFile(uniqueLockfile)) {
+        readUniqueLockfile(uniqueLockfile, modulesByConfiguration);
+      }
+      Path lockfileDirectory = projectDir.resolve(LOCKFILE_DIRECTORY);
+      if (Files.isDirectory(lockfileDirectory)) {
+        try (DirectoryStream<Path> lockfiles = Files.newDirectoryStream(lockfileDirectory, "*" + LOCKFILE_SUFFIX)) {
+          for (Path lockfile : lockfiles) {
+            String fileName = lockfile.getFileName().toString();
+            if (!fileName.startsWith(BUILDSCRIPT_PREFIX)) {
+              String configuration = fileName.substring(0, fileName.length() - LOCKFILE_SUFFIX.length());
+              readConfigurationLockfile(lockfile, modulesByConfiguration.computeIfAbsent(configuration, c -> new TreeSet<>()));
+            }
+          }
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new LockState(modulesByConfiguration);
+  }
+
+  // Reads a single lockfile, which is either a unique lockfile of a project
+  // or the lockfile of one configuration.
+  public static @NotNull LockState readFile(@NotNull Path lockfile) {
+    SortedMap<String, SortedSet<String>> modulesByConfiguration = new TreeMap<>();
+    String fileName = lockfile.getFileName().toString();
+    try {
+      if (fileName.equals(UNIQUE_LOCKFILE)) {
+        readUniqueLockfile(lockfile, modulesByConfiguration);
+      }
+      else if (fileName.endsWith(LOCKFILE_SUFFIX) && !fileName.startsWith(BUILDSCRIPT_PREFIX)) {
+        String configuration = fileName.substring(0, fileName.length() - LOCKFILE_SUFFIX.length());
+        readConfigurationLockfile(lockfile, modulesByConfiguration.computeIfAbsent(configuration, c -> new TreeSet<>()));
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return new LockState(modulesByConfiguration);
+  }
+
+  // Returns the directory of the project which owns the given lockfile.
+  public static @NotNull Path projectDirectoryOf(@NotNull Path lockfile) {
+    Path directory = lockfile.toAbsolutePath().getParent();
+    return lockfile.getFileName().toString().equals(UNIQUE_LOCKFILE)
+        ? directory
+        : directory.getParent().getParent(); // gradle/dependency-locks
+  }
+
+  public @NotNull SortedSet<String> configurations() {
+    return Collections.unmodifiableSortedSet(new TreeSet<>(modulesByConfiguration.keySet()));
+  }
+
+  public @NotNull SortedSet<String> modules(@NotNull String configuration) {
+    SortedSet<String> modules = modulesByConfiguration.get(configuration);
+    return modules == null ? Collections.emptySortedSet() : Collections.unmodifiableSortedSet(modules);
+  }
+
+  // Returns the configurations which lock a version of any of the given modules ("group:module").
+  public @NotNull SortedSet<String> configurationsLocking(@NotNull Collection<String> modules) {
+    SortedSet<String> configurations = new TreeSet<>();
+    modulesByConfiguration.forEach((configuration, entries) -> {
+      if (entries.stream().map(LockState::moduleOf).anyMatch(modules::contains)) {
+        configurations.add(configuration);
+      }
+    });
+    return Collections.unmodifiableSortedSet(configurations);
+  }
+
+  // Returns "group:module" of an entry like "group:module:version".
+  public static @NotNull String moduleOf(@NotNull String entry) {
+    int separator = entry.lastIndexOf(':');
+    return separator < 0 ? entry : entry.substring(0, separator);
+  }
+
+  @Contract(pure = true)
+  public @NotNull LockState restrictTo(@NotNull Collection<String> configurations) {
+    SortedMap<String, SortedSet<String>> restricted = new TreeMap<>();
+    for (String configuration : configurations) {
+      SortedSet<String> modules = modulesByConfiguration.get(configuration);
+      if (modules != null) {
+        restricted.put(configuration, modules);
+      }
+    }
+    return new LockState(restricted);
+  }
+
+  public @NotNull String fingerprint() {
+    Hasher hasher = new Hasher();
+    modulesByConfiguration.forEach((configuration, modules) -> {
+      hasher.putString(configuration);
+      hasher.putInt(modules.size());
+      modules.forEach(hasher::putString);
+    });
+    return hasher.hash();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    return this == o ||
+           o instanceof LockState &&
+           modulesByConfiguration.equals(((LockState) o).modulesByConfiguration);
+  }
+
+  @Override
+  public int hashCode() {
+    return modulesByConfiguration.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "LockState" + modulesByConfiguration;
+  }
+
+  private static void readUniqueLockfile(
+      @NotNull Path lockfile,
+      @NotNull SortedMap<String, SortedSet<String>> modulesByConfiguration)
+      throws IOException
+  {
+    for (String line : Files.readAllLines(lockfile, StandardCharsets.UTF_8)) {
+      line = line.trim();
+      int separator = line.lastIndexOf('=');
+      if (line.isEmpty() || line.startsWith("#") || separator < 0) {
+        continue;
+      }
+      String module = line.substring(0, separator);
+      for (String configuration : line.substring(separator + 1).split(",")) {
+        if (!configuration.isEmpty()) {
+          SortedSet<String> modules = modulesByConfiguration.computeIfAbsent(configuration, c -> new TreeSet<>());
+          if (!module.equals(EMPTY_KEY)) {
+            modules.add(module);
+          }
+        }
+      }
+    }
+  }
+
+  private static void readConfigurationLockfile(
+      @NotNull Path lockfile,
+      @NotNull SortedSet<String> modules)
+      throws IOException
+  {
+    for (String line : Files.readAllLines(lockfile, StandardCharsets.UTF_8)) {
+      line = line.trim();
+      if (!line.isEmpty() && !line.startsWith("#")) {
+        modules.add(line);
+      }
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ModuleVersionSelector;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentSelector;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.ResolutionResult;
+import org.gradle.api.artifacts.result.ResolvedComponentResult;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// Result of resolving a configuration, which can be stored in the configuration cache.
+public final class LockedConfiguration implements Serializable {
+  private static final long serialVersionUID = 2L;
+  private static final @NotNull Logger LOGGER = Logging.getLogger(LockedConfiguration.class);
+
+  private final @NotNull String name;
+  private final @NotNull SortedSet<String> modules;
+  private final boolean dynamic;
+  private final @NotNull Duration resolutionTime;
+  private final int components;
+  private final boolean deduplicated;
+
+  private LockedConfiguration(
+      @NotNull String name,
+      @NotNull SortedSet<String> modules,
+      boolean dynamic,
+      @NotNull Duration resolutionTime,
+      int components,
+      boolean deduplicated)
+  {
+    this.name = name;
+    this.modules = modules;
+    this.dynamic = dynamic;
+    this.resolutionTime = resolutionTime;
+    this.components = components;
+    this.deduplicated = deduplicated;
+  }
+
+  // Only resolves the dependency graph, without downloading any artifacts.
+  public static @NotNull LockedConfiguration resolveGraph(@NotNull Configuration configuration) {
+    return resolve(configuration, false);
+  }
+
+  // Resolves a configuration which is equivalent to another configuration that
+  // has already been resolved. The versions of the other configuration are used,
+  // so that Gradle neither lists dynamic versions nor resolves conflicts again.
+  // Gradle still has to resolve the configuration to write its lock state.
+  public static @NotNull LockedConfiguration resolveEquivalent(
+      @NotNull Configuration configuration,
+      @NotNull LockedConfiguration equivalent,
+      boolean artifacts)
+  {
+    Map<String, String> versions = new HashMap<>();
+    for (String module : equivalent.modules) {
+      versions.put(LockState.moduleOf(module), module.substring(module.lastIndexOf(':') + 1));
+    }
+    AtomicBoolean useEquivalentVersions = new AtomicBoolean(true);
+    configuration.getResolutionStrategy().eachDependency(details -> {
+      // Rules of the build script run first, and take precedence.
+      ModuleVersionSelector requested = details.getRequested();
+      if (useEquivalentVersions.get() && sameModuleVersion(details.getTarget(), requested)) {
+        String version = versions.get(requested.getGroup() + ":" + requested.getName());
+        if (version != null) {
+          details.useVersion(version);
+        }
+      }
+    });
+
+    // Rules which are not part of the key, like component metadata rules,
+    // may still lead to other modules. The configuration itself can only be
+    // resolved once, and Gradle writes its lock state. A copy is therefore
+    // resolved first, to see whether the versions of the other configuration fit.
+    Configuration copy = configuration.copyRecursive();
+    copy.getResolutionStrategy().deactivateDependencyLocking();
+    LockedConfiguration check;
+    try {
+      check = resolve(copy, false);
+    }
+    catch (RuntimeException e) {
+      check = null;
+    }
+    if (check == null || !check.modules.equals(equivalent.modules)) {
+      LOGGER.info("gradle-helper: Resolving {} on its own, since the versions of an equivalent configuration do not fit",
+          configuration);
+      useEquivalentVersions.set(false);
+      return resolve(configuration, artifacts);
+    }
+    LockedConfiguration result = resolve(configuration, artifacts);
+    return new LockedConfiguration(result.name, result.modules, equivalent.dynamic,
+        check.resolutionTime.plus(result.resolutionTime), result.components, true);
+  }
+
+  private static boolean sameModuleVersion(@NotNull ModuleVersionSelector a, @NotNull ModuleVersionSelector b) {
+    return Objects.equals(a.getGroup(), b.getGroup()) &&
+           Objects.equals(a.getName(), b.getName()) &&
+           Objects.equals(a.getVersion(), b.getVersion());
+  }
+
+  public static @NotNull LockedConfiguration resolve(@NotNull Configuration configuration, boolean artifacts) {
+    long start = System.nanoTime();
+    if (artifacts) {
+      configuration.resolve();
+    }
+    ResolutionResult result = configuration.getIncoming().getResolutionResult();
+    Set<ResolvedComponentResult> components = result.getAllComponents();
+    Duration resolutionTime = Duration.ofNanos(System.nanoTime() - start);
+    SortedSet<String> modules = components.stream()
+        .map(ResolvedComponentResult::getId)
+        .filter(ModuleComponentIdentifier.class::isInstance)
+        .map(ComponentIdentifier::getDisplayName)
+        .collect(Collectors.toCollection(TreeSet::new));
+    boolean dynamic = result.getAllDependencies().stream()
+        .map(DependencyResult::getRequested)
+        .filter(ModuleComponentSelector.class::isInstance)
+        .anyMatch(selector -> DependencyFingerprint.isDynamicVersion(
+            ((ModuleComponentSelector) selector).getVersionConstraint()));
+    return new LockedConfiguration(configuration.getName(), modules, dynamic, resolutionTime, components.size(), false);
+  }
+
+  public @NotNull String getName() {
+    return name;
+  }
+
+  public @NotNull SortedSet<String> getModules() {
+    return Collections.unmodifiableSortedSet(modules);
+  }
+
+  public boolean isDynamic() {
+    return dynamic;
+  }
+
+  public @NotNull Duration getResolutionTime() {
+    return resolutionTime;
+  }
+
+  // Includes the project components, which are not written to the lockfile.
+  public int getComponents() {
+    return components;
+  }
+
+  // Whether the versions were taken from an equivalent configuration.
+  public boolean isDeduplicated() {
+    return deduplicated;
+  }
+}
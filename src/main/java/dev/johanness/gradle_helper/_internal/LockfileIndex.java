@@ -0,0 +1,257 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Binary index of the lockfiles of a build. The file consists of a header,
+// a sorted string table and fixed-size entries, which are sorted by module.
+// Queries only decode the strings and entries which they need.
+//
+//   header:  magic, format version, string count, entry count, entry offset
+//   strings: offset of each string, followed by the strings (length + UTF-8)
+//   entries: module, version, project, configuration, lockfile (string ids)
+public final class LockfileIndex {
+  private static final int MAGIC = 0x47484c49; // "GHLI"
+  private static final int FORMAT_VERSION = 1;
+  private static final int HEADER_SIZE = 5 * Integer.BYTES;
+  private static final int ENTRY_SIZE = 5 * Integer.BYTES;
+
+  private static final @NotNull Comparator<Entry> ENTRY_ORDER =
+      Comparator.comparing(Entry::getModule)
+          .thenComparing(Entry::getVersion)
+          .thenComparing(Entry::getProject)
+          .thenComparing(Entry::getConfiguration)
+          .thenComparing(Entry::getLockfile);
+
+  private final @NotNull ByteBuffer buffer;
+  private final int stringCount;
+  private final int entryCount;
+  private final int entryOffset;
+
+  private LockfileIndex(@NotNull ByteBuffer buffer) {
+    this.buffer = buffer;
+    if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported lockfile index");
+    }
+    stringCount = buffer.getInt(8);
+    entryCount = buffer.getInt(12);
+    entryOffset = buffer.getInt(16);
+  }
+
+  // Reads the whole index into the heap. A memory mapping would keep the
+  // file locked on Windows, so that the next indexing could not replace it.
+  public static @NotNull LockfileIndex read(@NotNull Path file) {
+    try {
+      return new LockfileIndex(ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static void write(@NotNull Path file, @NotNull Collection<Entry> entries) {
+    TreeSet<String> uniqueStrings = new TreeSet<>();
+    for (Entry entry : entries) {
+      uniqueStrings.add(entry.module);
+      uniqueStrings.add(entry.version);
+      uniqueStrings.add(entry.project);
+      uniqueStrings.add(entry.configuration);
+      uniqueStrings.add(entry.lockfile);
+    }
+    Map<String, Integer> ids = new TreeMap<>();
+    List<byte[]> encodedStrings = new ArrayList<>();
+    int stringBytes = 0;
+    for (String string : uniqueStrings) {
+      ids.put(string, ids.size());
+      byte[] encoded = string.getBytes(StandardCharsets.UTF_8);
+      encodedStrings.add(encoded);
+      stringBytes += Integer.BYTES + encoded.length;
+    }
+    List<Entry> sortedEntries = new ArrayList<>(entries);
+    sortedEntries.sort(ENTRY_ORDER);
+
+    int entryOffset = HEADER_SIZE + Integer.BYTES * encodedStrings.size() + stringBytes;
+    ByteBuffer buffer = ByteBuffer.allocate(entryOffset + ENTRY_SIZE * sortedEntries.size());
+    buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(encodedStrings.size()).putInt(sortedEntries.size())
+        .putInt(entryOffset);
+    int stringOffset = HEADER_SIZE + Integer.BYTES * encodedStrings.size();
+    for (byte[] encoded : encodedStrings) {
+      buffer.putInt(stringOffset);
+      stringOffset += Integer.BYTES + encoded.length;
+    }
+    for (byte[] encoded : encodedStrings) {
+      buffer.putInt(encoded.length).put(encoded);
+    }
+    for (Entry entry : sortedEntries) {
+      buffer.putInt(ids.get(entry.module))
+          .putInt(ids.get(entry.version))
+          .putInt(ids.get(entry.project))
+          .putInt(ids.get(entry.configuration))
+          .putInt(ids.get(entry.lockfile));
+    }
+
+    try {
+      Files.createDirectories(file.getParent());
+      Files.write(file, buffer.array());
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public int size() {
+    return entryCount;
+  }
+
+  public @NotNull List<Entry> entries() {
+    List<Entry> entries = new ArrayList<>(entryCount);
+    for (int i = 0; i < entryCount; i++) {
+      entries.add(entry(i));
+    }
+    return entries;
+  }
+
+  // Returns all entries of a module ("group:module") using binary search.
+  public @NotNull List<Entry> findModule(@NotNull String module) {
+    int moduleId = findString(module);
+    List<Entry> entries = new ArrayList<>();
+    if (moduleId < 0) {
+      return entries;
+    }
+    int low = 0;
+    int high = entryCount;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (buffer.getInt(entryOffset + middle * ENTRY_SIZE) < moduleId) {
+        low = middle + 1;
+      }
+      else {
+        high = middle;
+      }
+    }
+    for (int i = low; i < entryCount && buffer.getInt(entryOffset + i * ENTRY_SIZE) == moduleId; i++) {
+      entries.add(entry(i));
+    }
+    return entries;
+  }
+
+  private int findString(@NotNull String string) {
+    int low = 0;
+    int high = stringCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = string(middle).compareTo(string);
+      if (comparison < 0) {
+        low = middle + 1;
+      }
+      else if (comparison > 0) {
+        high = middle - 1;
+      }
+      else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private @NotNull Entry entry(int index) {
+    int offset = entryOffset + index * ENTRY_SIZE;
+    return new Entry(
+        string(buffer.getInt(offset + 16)),
+        string(buffer.getInt(offset + 8)),
+        string(buffer.getInt(offset + 12)),
+        string(buffer.getInt(offset)),
+        string(buffer.getInt(offset + 4)));
+  }
+
+  private @NotNull String string(int id) {
+    int offset = buffer.getInt(HEADER_SIZE + id * Integer.BYTES);
+    byte[] bytes = new byte[buffer.getInt(offset)];
+    ByteBuffer slice = buffer.duplicate();
+    slice.position(offset + Integer.BYTES);
+    slice.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  public static final class Entry {
+    private final @NotNull String lockfile;
+    private final @NotNull String project;
+    private final @NotNull String configuration;
+    private final @NotNull String module;
+    private final @NotNull String version;
+
+    public Entry(
+        @NotNull String lockfile,
+        @NotNull String project,
+        @NotNull String configuration,
+        @NotNull String module,
+        @NotNull String version)
+    {
+      this.lockfile = lockfile;
+      this.project = project;
+      this.configuration = configuration;
+      this.module = module;
+      this.version = version;
+    }
+
+    public @NotNull String getLockfile() {
+      return lockfile;
+    }
+
+    public @NotNull String getProject() {
+      return project;
+    }
+
+    public @NotNull String getConfiguration() {
+      return configuration;
+    }
+
+    public @NotNull String getModule() {
+      return module;
+    }
+
+    public @NotNull String getVersion() {
+      return version;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry entry = (Entry) o;
+      return lockfile.equals(entry.lockfile) &&
+             project.equals(entry.project) &&
+             configuration.equals(entry.configuration) &&
+             module.equals(entry.module) &&
+             version.equals(entry.version);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(lockfile, project, configuration, module, version);
+    }
+
+    @Override
+    public String toString() {
+      return project + " " + configuration + " " + module + ":" + version;
+    }
+  }
+}
@@ -0,0 +1,425 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.Project;
+import org.gradle.api.artifacts.ArtifactCollection;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.ModuleDependency;
+import org.gradle.api.artifacts.component.ComponentIdentifier;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.artifacts.query.ArtifactResolutionQuery;
+import org.gradle.api.artifacts.result.ArtifactResult;
+import org.gradle.api.artifacts.result.ComponentArtifactsResult;
+import org.gradle.api.artifacts.result.ResolvedArtifactResult;
+import org.gradle.api.attributes.Bundling;
+import org.gradle.api.component.Artifact;
+import org.gradle.api.attributes.Category;
+import org.gradle.api.attributes.LibraryElements;
+import org.gradle.api.attributes.Usage;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.maven.MavenModule;
+import org.gradle.maven.MavenPomArtifact;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Collects the files of locked modules, so that they can be copied into a
+// repository with Maven layout. Builds can then resolve their locked
+// dependencies from this repository without network access.
+public final class SeedRepository {
+  private SeedRepository() {} // Cannot be instantiated.
+
+  private static final @NotNull Logger LOGGER = Logging.getLogger(SeedRepository.class);
+
+  // Algorithms of the checksum files which Gradle writes when publishing to Maven repositories
+  private static final @NotNull Map<String, String> CHECKSUMS = Map.of(
+      "md5", "MD5",
+      "sha1", "SHA-1",
+      "sha256", "SHA-256",
+      "sha512", "SHA-512");
+
+  private static final @NotNull Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+  private static final @NotNull Pattern PARENT = Pattern.compile(
+      "<parent>(.*?)</parent>", Pattern.DOTALL);
+  private static final @NotNull Pattern DEPENDENCY_MANAGEMENT = Pattern.compile(
+      "<dependencyManagement>(.*?)</dependencyManagement>", Pattern.DOTALL);
+  private static final @NotNull Pattern DEPENDENCY = Pattern.compile("<dependency>(.*?)</dependency>", Pattern.DOTALL);
+  private static final @NotNull Pattern PROPERTIES = Pattern.compile("<properties>(.*?)</properties>", Pattern.DOTALL);
+  private static final @NotNull Pattern PROPERTY = Pattern.compile("<([\\w.-]+)>\\s*([^<]*?)\\s*</\\1>");
+  private static final @NotNull Pattern PLACEHOLDER = Pattern.compile("\\$\\{([^}]+)}");
+  private static final @NotNull Pattern GROUP = Pattern.compile("<groupId>\\s*([^<\\s]+)\\s*</groupId>");
+  private static final @NotNull Pattern MODULE = Pattern.compile("<artifactId>\\s*([^<\\s]+)\\s*</artifactId>");
+  private static final @NotNull Pattern VERSION = Pattern.compile("<version>\\s*([^<\\s]+)\\s*</version>");
+  private static final @NotNull Pattern IMPORT_SCOPE = Pattern.compile("<scope>\\s*import\\s*</scope>");
+
+  // Returns the files of the given modules by their path in the repository.
+  public static @NotNull SortedMap<String, File> collectFiles(
+      @NotNull Project project,
+      @NotNull Collection<String> modules)
+  {
+    SortedMap<String, File> files = new TreeMap<>();
+
+    Configuration configuration = project.getConfigurations().detachedConfiguration();
+    for (String module : modules) {
+      ModuleDependency dependency = (ModuleDependency) project.getDependencies().create(module);
+      dependency.setTransitive(false);
+      configuration.getDependencies().add(dependency);
+    }
+    configuration.attributes(attributes -> {
+      attributes.attribute(Usage.USAGE_ATTRIBUTE, project.getObjects().named(Usage.class, Usage.JAVA_RUNTIME));
+      attributes.attribute(Category.CATEGORY_ATTRIBUTE, project.getObjects().named(Category.class, Category.LIBRARY));
+      attributes.attribute(LibraryElements.LIBRARY_ELEMENTS_ATTRIBUTE,
+          project.getObjects().named(LibraryElements.class, LibraryElements.JAR));
+      attributes.attribute(Bundling.BUNDLING_ATTRIBUTE, project.getObjects().named(Bundling.class, Bundling.EXTERNAL));
+    });
+    // Platforms and other modules without artifacts must not fail the export.
+    ArtifactCollection artifacts = configuration.getIncoming()
+        .artifactView(view -> view.lenient(true))
+        .getArtifacts();
+    // The seed repository comes first. Gradle would find the metadata of a
+    // module there and then fail on its missing artifacts, so such modules
+    // are not exported at all.
+    for (Throwable failure : artifacts.getFailures()) {
+      LOGGER.warn("gradle-helper: {}", failure.getMessage());
+    }
+    Set<String> failedModules = failedModules(artifacts.getFailures(), modules);
+    for (String module : failedModules) {
+      LOGGER.warn("gradle-helper: Module {} is not exported, because its artifacts cannot be resolved", module);
+    }
+    for (ResolvedArtifactResult artifact : artifacts.getArtifacts()) {
+      ComponentIdentifier id = artifact.getId().getComponentIdentifier();
+      if (id instanceof ModuleComponentIdentifier) {
+        ModuleComponentIdentifier moduleId = (ModuleComponentIdentifier) id;
+        if (!failedModules.contains(coordinates(moduleId))) {
+          files.put(path(moduleId, artifact.getFile().getName()), artifact.getFile());
+        }
+      }
+    }
+
+    // Parent POMs and imported BOMs are not part of the dependency graph,
+    // but Gradle needs them to read the POMs of the modules. The versions of
+    // imported BOMs may refer to properties of the parents, so imports are
+    // only followed once all parents are known.
+    List<String> exportedModules = modules.stream()
+        .filter(module -> !failedModules.contains(module))
+        .collect(Collectors.toList());
+    Map<String, String> poms = new HashMap<>();
+    List<String> unexpandedPoms = new ArrayList<>();
+    Set<String> visited = new HashSet<>(exportedModules);
+    Deque<String> pending = new ArrayDeque<>(exportedModules);
+    while (!pending.isEmpty()) {
+      List<String> batch = List.copyOf(pending);
+      pending.clear();
+      for (Map.Entry<String, File> pom : collectPoms(project, batch, files).entrySet()) {
+        String content = COMMENT.matcher(read(pom.getValue().toPath())).replaceAll("");
+        poms.put(pom.getKey(), content);
+        unexpandedPoms.add(pom.getKey());
+        String parent = parentOf(content);
+        if (parent != null && visited.add(parent)) {
+          pending.add(parent);
+        }
+      }
+      if (pending.isEmpty()) {
+        for (String module : unexpandedPoms) {
+          for (String bom : importedBoms(poms.get(module), properties(module, poms))) {
+            if (visited.add(bom)) {
+              pending.add(bom);
+            }
+          }
+        }
+        unexpandedPoms.clear();
+      }
+    }
+    return files;
+  }
+
+  // Returns the POMs of the given modules by their coordinates.
+  private static @NotNull Map<String, File> collectPoms(
+      @NotNull Project project,
+      @NotNull List<String> modules,
+      @NotNull Map<String, File> files)
+  {
+    ArtifactResolutionQuery query = project.getDependencies().createArtifactResolutionQuery();
+    for (String module : modules) {
+      String[] parts = module.split(":");
+      query.forModule(parts[0], parts[1], parts[2]);
+    }
+    // Java cannot create generic arrays, which the varargs parameter would need.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    Class<? extends Artifact>[] artifactTypes = new Class[] {MavenPomArtifact.class};
+    Set<ComponentArtifactsResult> results = query
+        .withArtifacts(MavenModule.class, artifactTypes)
+        .execute()
+        .getResolvedComponents();
+    Map<String, File> poms = new HashMap<>();
+    for (ComponentArtifactsResult result : results) {
+      ModuleComponentIdentifier id = (ModuleComponentIdentifier) result.getId();
+      for (ArtifactResult artifact : result.getArtifacts(MavenPomArtifact.class)) {
+        if (artifact instanceof ResolvedArtifactResult) {
+          File pom = ((ResolvedArtifactResult) artifact).getFile();
+          files.put(path(id, pom.getName()), pom);
+          File moduleMetadata = moduleMetadataOf(pom);
+          if (moduleMetadata != null) {
+            files.put(path(id, moduleMetadata.getName()), moduleMetadata);
+          }
+          poms.put(coordinates(id), pom);
+        }
+        else {
+          LOGGER.warn("gradle-helper: Cannot find the POM of {}", id.getDisplayName());
+        }
+      }
+    }
+    return poms;
+  }
+
+  // There is no public API to get the Gradle module metadata. It is either
+  // next to the POM, or in a sibling directory within Gradle's cache.
+  private static @Nullable File moduleMetadataOf(@NotNull File pom) {
+    String name = pom.getName().replaceFirst("\\.pom$", ".module");
+    File sibling = new File(pom.getParentFile(), name);
+    if (sibling.isFile()) {
+      return sibling;
+    }
+    File[] hashDirectories = pom.getParentFile().getParentFile().listFiles(File::isDirectory);
+    if (hashDirectories != null) {
+      for (File directory : hashDirectories) {
+        File candidate = new File(directory, name);
+        if (candidate.isFile()) {
+          return candidate;
+        }
+      }
+    }
+    return null;
+  }
+
+  // Gradle names the module in the message of the failure or of one of its
+  // causes, like "Could not find module-1.0.jar (group:module:1.0)".
+  static @NotNull Set<String> failedModules(
+      @NotNull Collection<? extends Throwable> failures,
+      @NotNull Collection<String> modules)
+  {
+    Set<String> failedModules = new TreeSet<>();
+    for (Throwable failure : failures) {
+      for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+        String message = cause.getMessage();
+        if (message != null) {
+          for (String module : modules) {
+            if (message.contains(module)) {
+              failedModules.add(module);
+            }
+          }
+        }
+      }
+    }
+    return failedModules;
+  }
+
+  private static @NotNull String coordinates(@NotNull ModuleComponentIdentifier id) {
+    return id.getGroup() + ":" + id.getModule() + ":" + id.getVersion();
+  }
+
+  public static @NotNull String path(@NotNull ModuleComponentIdentifier id, @NotNull String fileName) {
+    return path(id.getGroup(), id.getModule(), id.getVersion(), fileName);
+  }
+
+  public static @NotNull String path(
+      @NotNull String group,
+      @NotNull String module,
+      @NotNull String version,
+      @NotNull String fileName)
+  {
+    return group.replace('.', '/') + "/" + module + "/" + version + "/" + fileName;
+  }
+
+  public static @NotNull String metadataPath(@NotNull String group, @NotNull String module) {
+    return group.replace('.', '/') + "/" + module + "/maven-metadata.xml";
+  }
+
+  // Returns the coordinates of the parent POM, or null.
+  static @Nullable String parentOf(@NotNull String pom) {
+    Matcher parent = PARENT.matcher(pom);
+    return parent.find() ? coordinatesOf(parent.group(1)) : null;
+  }
+
+  // Returns the coordinates of the BOMs imported in the dependency management.
+  static @NotNull List<String> importedBoms(@NotNull String pom, @NotNull Map<String, String> properties) {
+    List<String> boms = new ArrayList<>();
+    Matcher dependencyManagement = DEPENDENCY_MANAGEMENT.matcher(pom);
+    while (dependencyManagement.find()) {
+      Matcher dependency = DEPENDENCY.matcher(dependencyManagement.group(1));
+      while (dependency.find()) {
+        if (IMPORT_SCOPE.matcher(dependency.group(1)).find()) {
+          String bom = coordinatesOf(dependency.group(1));
+          String interpolated = bom == null ? null : interpolate(bom, properties);
+          if (interpolated == null) {
+            LOGGER.warn("gradle-helper: Cannot determine the coordinates of imported BOM {}",
+                bom != null ? bom : dependency.group(1).trim());
+          }
+          else {
+            boms.add(interpolated);
+          }
+        }
+      }
+    }
+    return boms;
+  }
+
+  // Returns the properties which the POM of the given module can refer to.
+  // Properties of the POM take precedence over those of its parents.
+  private static @NotNull Map<String, String> properties(@NotNull String module, @NotNull Map<String, String> poms) {
+    Deque<String> chain = new ArrayDeque<>();
+    Set<String> visited = new HashSet<>();
+    for (String current = module; current != null && poms.containsKey(current) && visited.add(current);
+         current = parentOf(poms.get(current)))
+    {
+      chain.push(current);
+    }
+    Map<String, String> properties = new HashMap<>();
+    for (String current : chain) {
+      properties.putAll(propertiesOf(poms.get(current)));
+    }
+    String[] parts = module.split(":");
+    properties.put("project.groupId", parts[0]);
+    properties.put("project.artifactId", parts[1]);
+    properties.put("project.version", parts[2]);
+    String parent = parentOf(poms.get(module));
+    if (parent != null) {
+      String[] parentParts = parent.split(":");
+      properties.put("project.parent.groupId", parentParts[0]);
+      properties.put("project.parent.artifactId", parentParts[1]);
+      properties.put("project.parent.version", parentParts[2]);
+    }
+    return properties;
+  }
+
+  static @NotNull Map<String, String> propertiesOf(@NotNull String pom) {
+    Map<String, String> properties = new HashMap<>();
+    Matcher section = PROPERTIES.matcher(pom);
+    if (section.find()) {
+      Matcher property = PROPERTY.matcher(section.group(1));
+      while (property.find()) {
+        properties.put(property.group(1), property.group(2));
+      }
+    }
+    return properties;
+  }
+
+  // Returns null if a placeholder cannot be resolved.
+  private static @Nullable String interpolate(@NotNull String value, @NotNull Map<String, String> properties) {
+    // Properties may refer to other properties, but not endlessly.
+    for (int i = 0; i < 10; i++) {
+      Matcher placeholder = PLACEHOLDER.matcher(value);
+      if (!placeholder.find()) {
+        return value;
+      }
+      String replacement = properties.get(placeholder.group(1));
+      if (replacement == null) {
+        return null;
+      }
+      value = value.substring(0, placeholder.start()) + replacement + value.substring(placeholder.end());
+    }
+    return null;
+  }
+
+  private static @Nullable String coordinatesOf(@NotNull String element) {
+    Matcher group = GROUP.matcher(element);
+    Matcher module = MODULE.matcher(element);
+    Matcher version = VERSION.matcher(element);
+    return group.find() && module.find() && version.find()
+        ? group.group(1) + ":" + module.group(1) + ":" + version.group(1)
+        : null;
+  }
+
+  // Gradle lists the versions of a module when the build uses dynamic versions or ranges.
+  public static @NotNull String mavenMetadata(
+      @NotNull String group,
+      @NotNull String module,
+      @NotNull Collection<String> versions)
+  {
+    SortedSet<String> sortedVersions = new TreeSet<>(VersionRange.VERSION_ORDER);
+    sortedVersions.addAll(versions);
+    StringBuilder xml = new StringBuilder();
+    xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+        .append("<metadata>\n")
+        .append("  <groupId>").append(group).append("</groupId>\n")
+        .append("  <artifactId>").append(module).append("</artifactId>\n")
+        .append("  <versioning>\n")
+        .append("    <latest>").append(sortedVersions.last()).append("</latest>\n")
+        .append("    <release>").append(sortedVersions.last()).append("</release>\n")
+        .append("    <versions>\n");
+    for (String version : sortedVersions) {
+      xml.append("      <version>").append(version).append("</version>\n");
+    }
+    xml.append("    </versions>\n")
+        .append("  </versioning>\n")
+        .append("</metadata>\n");
+    return xml.toString();
+  }
+
+  public static void writeChecksums(@NotNull Path file) {
+    try {
+      for (Map.Entry<String, String> checksum : CHECKSUMS.entrySet()) {
+        Path checksumFile = file.resolveSibling(file.getFileName() + "." + checksum.getKey());
+        Files.writeString(checksumFile, checksum(file, checksum.getValue()), StandardCharsets.US_ASCII);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  static @NotNull String checksum(@NotNull Path file, @NotNull String algorithm) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(algorithm);
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(algorithm + " must be supported by every Java platform", e);
+    }
+    byte[] buffer = new byte[8192];
+    try (InputStream stream = Files.newInputStream(file)) {
+      for (int length = stream.read(buffer); length >= 0; length = stream.read(buffer)) {
+        digest.update(buffer, 0, length);
+      }
+    }
+    StringBuilder hex = new StringBuilder();
+    for (byte b : digest.digest()) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+
+  private static @NotNull String read(@NotNull Path file) {
+    try {
+      return Files.readString(file, StandardCharsets.UTF_8);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Counters for the component selection rule. All counters are LongAdders, so
+// configurations resolving in parallel do not contend on a shared field.
+public final class SelectionStatistics {
+  private final @NotNull List<String> whitelist;
+  private final @NotNull LongAdder @NotNull [] whitelistMatches;
+  // Gradle reuses the identifiers of modules, so the keys are cheap to look up.
+  private final @NotNull Map<ModuleIdentifier, ModuleCounters> modules = new ConcurrentHashMap<>();
+
+  public SelectionStatistics(@NotNull List<String> whitelist) {
+    this.whitelist = List.copyOf(whitelist);
+    whitelistMatches = new LongAdder[whitelist.size()];
+    for (int i = 0; i < whitelistMatches.length; i++) {
+      whitelistMatches[i] = new LongAdder();
+    }
+  }
+
+  public void candidateEvaluated(@NotNull ModuleIdentifier module, boolean rejected) {
+    ModuleCounters counters = modules.get(module);
+    if (counters == null) {
+      counters = modules.computeIfAbsent(module, ModuleCounters::new);
+    }
+    counters.evaluated.increment();
+    if (rejected) {
+      counters.rejected.increment();
+    }
+  }
+
+  public void whitelistMatched(int index) {
+    whitelistMatches[index].increment();
+  }
+
+  public long evaluated() {
+    return modules.values().stream().mapToLong(counters -> counters.evaluated.sum()).sum();
+  }
+
+  public long rejected() {
+    return modules.values().stream().mapToLong(counters -> counters.rejected.sum()).sum();
+  }
+
+  public long whitelistMatches(int index) {
+    return whitelistMatches[index].sum();
+  }
+
+  public @NotNull List<String> unusedWhitelistEntries() {
+    return IntStream.range(0, whitelistMatches.length)
+        .filter(i -> whitelistMatches[i].sum() == 0)
+        .mapToObj(whitelist::get)
+        .collect(Collectors.toList());
+  }
+
+  // Returns lines of the form "group:module: 3 of 10 candidates rejected".
+  public @NotNull List<String> mostRejectedModules(int limit) {
+    return modules.values().stream()
+        .filter(counters -> counters.rejected.sum() > 0)
+        .sorted(Comparator.comparingLong((ModuleCounters counters) -> counters.rejected.sum()).reversed()
+            .thenComparing(counters -> counters.module))
+        .limit(limit)
+        .map(counters -> counters.module + ": " + counters.rejected.sum() + " of " +
+                         counters.evaluated.sum() + " candidates rejected")
+        .collect(Collectors.toList());
+  }
+
+  private static final class ModuleCounters {
+    private final @NotNull String module;
+    private final @NotNull LongAdder evaluated = new LongAdder();
+    private final @NotNull LongAdder rejected = new LongAdder();
+
+    private ModuleCounters(@NotNull ModuleIdentifier module) {
+      this.module = module.getGroup() + ':' + module.getName();
+    }
+  }
+}
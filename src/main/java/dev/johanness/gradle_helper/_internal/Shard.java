@@ -0,0 +1,88 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.InvalidUserDataException;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// One of several subsets of the projects, written as "3/8" on the command line.
+public final class Shard {
+  private final int index; // 1-based
+  private final int count;
+
+  private Shard(int index, int count) {
+    this.index = index;
+    this.count = count;
+  }
+
+  public static @NotNull Shard parse(@NotNull String specification) {
+    int separator = specification.indexOf('/');
+    try {
+      int index = Integer.parseInt(specification.substring(0, Math.max(separator, 0)).trim());
+      int count = Integer.parseInt(specification.substring(separator + 1).trim());
+      if (count >= 1 && index >= 1 && index <= count) {
+        return new Shard(index, count);
+      }
+    }
+    catch (NumberFormatException e) {
+      // Handled below
+    }
+    throw new InvalidUserDataException(
+        "Invalid shard '" + specification + "'. Expected '<index>/<count>' with 1 <= index <= count.");
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  // Assigns the projects to the shards and returns the projects of this shard.
+  // The result only depends on the arguments, so every shard gets the same
+  // partitioning as long as all shards use the same costs. If there are costs
+  // of earlier updates, the projects are balanced by these costs. Otherwise,
+  // they are distributed by hash.
+  public @NotNull List<String> select(@NotNull Collection<String> projectPaths, @NotNull Map<String, Double> costs) {
+    List<String> paths = new ArrayList<>(new TreeSet<>(projectPaths));
+    if (costs.isEmpty()) {
+      return paths.stream()
+          .filter(path -> Math.floorMod(path.hashCode(), count) == index - 1)
+          .collect(Collectors.toList());
+    }
+
+    double defaultCost = costs.values().stream().mapToDouble(Double::doubleValue).average().orElse(1);
+    paths.sort(Comparator.comparingDouble((String path) -> costs.getOrDefault(path, defaultCost)).reversed()
+        .thenComparing(Comparator.naturalOrder()));
+
+    // Longest processing time first: each project goes to the shard with the lowest total cost.
+    double[] totals = new double[count];
+    List<String> selected = new ArrayList<>();
+    for (String path : paths) {
+      int shard = 0;
+      for (int i = 1; i < count; i++) {
+        if (totals[i] < totals[shard]) {
+          shard = i;
+        }
+      }
+      totals[shard] += costs.getOrDefault(path, defaultCost);
+      if (shard == index - 1) {
+        selected.add(path);
+      }
+    }
+    selected.sort(Comparator.naturalOrder());
+    return selected;
+  }
+
+  @Override
+  public String toString() {
+    return index + "/" + count;
+  }
+}
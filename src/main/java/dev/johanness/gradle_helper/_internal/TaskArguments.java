@@ -0,0 +1,35 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+// Reads task options from the command line before Gradle parses them.
+public final class TaskArguments {
+  private TaskArguments() {} // Cannot be instantiated.
+
+  public static @NotNull List<String> optionValues(
+      @NotNull List<String> arguments,
+      @NotNull Pattern taskPattern,
+      @NotNull String option)
+  {
+    String flag = "--" + option;
+    List<String> values = new ArrayList<>();
+    boolean matchingTask = false;
+    for (int i = 0; i < arguments.size(); i++) {
+      String argument = arguments.get(i);
+      if (!argument.startsWith("-")) {
+        matchingTask = taskPattern.matcher(argument).matches();
+      }
+      else if (matchingTask && argument.equals(flag) && i + 1 < arguments.size()) {
+        values.add(arguments.get(++i));
+      }
+      else if (matchingTask && argument.startsWith(flag + "=")) {
+        values.add(argument.substring(flag.length() + 1));
+      }
+    }
+    return values;
+  }
+}
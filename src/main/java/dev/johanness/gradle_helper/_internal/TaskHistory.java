@@ -0,0 +1,259 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+// Rolling history of task executions. Every line is one task of one build.
+// Only the executions of the latest builds are kept.
+public final class TaskHistory {
+  private TaskHistory() {} // Cannot be instantiated.
+
+  // A task only counts as regressed with enough earlier executions, and
+  // when it became noticeably slower. Short tasks fluctuate a lot.
+  private static final int MIN_SAMPLES = 5;
+  private static final long MIN_REGRESSION_MILLIS = 100;
+
+  private static final @NotNull String LOCK_SUFFIX = ".lock";
+  private static final @NotNull Object APPEND_LOCK = new Object();
+
+  public static @NotNull List<Execution> read(@NotNull Path file) {
+    List<Execution> executions = new ArrayList<>();
+    if (!Files.isRegularFile(file)) {
+      return executions;
+    }
+    try {
+      for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+        String[] fields = line.split("\t");
+        if (fields.length != 5) {
+          continue; // Ignore lines written by other versions of the plugin
+        }
+        try {
+          executions.add(new Execution(
+              Long.parseLong(fields[0]), fields[1], Outcome.valueOf(fields[2]),
+              Boolean.parseBoolean(fields[3]), Long.parseLong(fields[4])));
+        }
+        catch (IllegalArgumentException e) {
+          // Ignore corrupt lines as well. The history is only used for reports.
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return executions;
+  }
+
+  public static void append(@NotNull Path file, @NotNull Collection<Execution> executions, int maxBuilds) {
+    try {
+      Files.createDirectories(file.getParent());
+      // Concurrent builds must not lose each other's executions. The history
+      // file itself is replaced, so a separate file is locked. File locks
+      // are held by the whole JVM, so threads have to synchronize as well.
+      Path lockFile = file.resolveSibling(file.getFileName() + LOCK_SUFFIX);
+      synchronized (APPEND_LOCK) {
+        try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+          channel.lock(); // Released when the channel is closed.
+          write(file, latestBuilds(read(file), executions, maxBuilds));
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void write(@NotNull Path file, @NotNull List<Execution> history) throws IOException {
+    // Concurrent builds must never see a partially written file.
+    Path temporaryFile = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+    try (Writer writer = Files.newBufferedWriter(temporaryFile, StandardCharsets.UTF_8)) {
+      for (Execution execution : history) {
+        writer.write(execution.build + "\t" + execution.taskPath + "\t" + execution.outcome + "\t" +
+                     execution.incremental + "\t" + execution.millis + "\n");
+      }
+    }
+    Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  static @NotNull List<Execution> latestBuilds(
+      @NotNull List<Execution> history,
+      @NotNull Collection<Execution> executions,
+      int maxBuilds)
+  {
+    List<Execution> all = new ArrayList<>(history);
+    all.addAll(executions);
+    SortedSet<Long> builds = latestBuildIds(all, maxBuilds);
+    return all.stream()
+        .filter(execution -> builds.contains(execution.build))
+        .sorted(Comparator.comparingLong(Execution::getBuild).thenComparing(Execution::getTaskPath))
+        .collect(Collectors.toList());
+  }
+
+  public static @NotNull List<Trend> trends(@NotNull List<Execution> history, int builds) {
+    SortedSet<Long> buildIds = latestBuildIds(history, builds);
+    Map<String, List<Execution>> executionsByTask = new TreeMap<>();
+    for (Execution execution : history) {
+      if (buildIds.contains(execution.build)) {
+        executionsByTask.computeIfAbsent(execution.taskPath, path -> new ArrayList<>()).add(execution);
+      }
+    }
+    List<Trend> trends = new ArrayList<>();
+    for (Map.Entry<String, List<Execution>> entry : executionsByTask.entrySet()) {
+      List<Execution> executions = entry.getValue();
+      executions.sort(Comparator.comparingLong(Execution::getBuild));
+      // Up-to-date checks and cache hits say nothing about the speed of the task.
+      List<Long> durations = executions.stream()
+          .filter(execution -> execution.outcome == Outcome.EXECUTED)
+          .map(Execution::getMillis)
+          .collect(Collectors.toList());
+      long avoided = executions.stream().filter(execution -> execution.outcome.isAvoided()).count();
+      // An old slow execution is no regression if the task did not run in the latest build.
+      Execution latest = executions.get(executions.size() - 1);
+      boolean executedInLatestBuild = latest.build == buildIds.last() && latest.outcome == Outcome.EXECUTED;
+      trends.add(new Trend(
+          entry.getKey(),
+          executions.size(),
+          (int) avoided,
+          durations.isEmpty() ? 0 : percentile(durations, 50),
+          durations.isEmpty() ? 0 : percentile(durations, 95),
+          executedInLatestBuild && regressed(durations)));
+    }
+    trends.sort(Comparator.comparingLong(Trend::getP95).reversed().thenComparing(Trend::getTaskPath));
+    return trends;
+  }
+
+  // Uses the nearest-rank method.
+  static long percentile(@NotNull List<Long> values, int percentile) {
+    List<Long> sorted = values.stream().sorted().collect(Collectors.toList());
+    int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+    return sorted.get(Math.max(rank, 1) - 1);
+  }
+
+  // Compares the latest execution with all earlier executions.
+  static boolean regressed(@NotNull List<Long> durations) {
+    if (durations.size() <= MIN_SAMPLES) {
+      return false;
+    }
+    List<Long> earlier = durations.subList(0, durations.size() - 1);
+    long latest = durations.get(durations.size() - 1);
+    return latest > percentile(earlier, 95) &&
+           latest - percentile(earlier, 50) >= MIN_REGRESSION_MILLIS;
+  }
+
+  private static @NotNull SortedSet<Long> latestBuildIds(@NotNull List<Execution> executions, int builds) {
+    TreeSet<Long> buildIds = executions.stream()
+        .map(Execution::getBuild)
+        .collect(Collectors.toCollection(TreeSet::new));
+    while (buildIds.size() > builds) {
+      buildIds.pollFirst();
+    }
+    return buildIds;
+  }
+
+  public enum Outcome {
+    EXECUTED,
+    UP_TO_DATE,
+    FROM_CACHE,
+    SKIPPED,
+    FAILED;
+
+    public boolean isAvoided() {
+      return this == UP_TO_DATE || this == FROM_CACHE;
+    }
+  }
+
+  public static final class Execution {
+    private final long build;
+    private final @NotNull String taskPath;
+    private final @NotNull Outcome outcome;
+    private final boolean incremental;
+    private final long millis;
+
+    public Execution(long build, @NotNull String taskPath, @NotNull Outcome outcome, boolean incremental, long millis) {
+      this.build = build;
+      this.taskPath = taskPath;
+      this.outcome = outcome;
+      this.incremental = incremental;
+      this.millis = millis;
+    }
+
+    public long getBuild() {
+      return build;
+    }
+
+    public @NotNull String getTaskPath() {
+      return taskPath;
+    }
+
+    public @NotNull Outcome getOutcome() {
+      return outcome;
+    }
+
+    public boolean isIncremental() {
+      return incremental;
+    }
+
+    public long getMillis() {
+      return millis;
+    }
+  }
+
+  public static final class Trend {
+    private final @NotNull String taskPath;
+    private final int builds;
+    private final int avoided;
+    private final long p50;
+    private final long p95;
+    private final boolean regressed;
+
+    Trend(@NotNull String taskPath, int builds, int avoided, long p50, long p95, boolean regressed) {
+      this.taskPath = taskPath;
+      this.builds = builds;
+      this.avoided = avoided;
+      this.p50 = p50;
+      this.p95 = p95;
+      this.regressed = regressed;
+    }
+
+    public @NotNull String getTaskPath() {
+      return taskPath;
+    }
+
+    public int getBuilds() {
+      return builds;
+    }
+
+    public int getAvoided() {
+      return avoided;
+    }
+
+    public long getP50() {
+      return p50;
+    }
+
+    public long getP95() {
+      return p95;
+    }
+
+    public boolean isRegressed() {
+      return regressed;
+    }
+  }
+}
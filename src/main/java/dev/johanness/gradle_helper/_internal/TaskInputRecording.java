@@ -0,0 +1,233 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.GradleException;
+import org.gradle.api.Task;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Fingerprints of the inputs of tasks, which can be compared between builds
+// to find out why a task did not get a hit in the build cache.
+public final class TaskInputRecording {
+  private TaskInputRecording() {} // Cannot be instantiated.
+
+  private static final int HASH_LENGTH = 16;
+  private static final @NotNull String IMPLEMENTATION = "implementation";
+  private static final @NotNull String PROPERTY_PREFIX = "property ";
+  private static final @NotNull String FILE_PREFIX = "file ";
+
+  // The fingerprint does not reproduce how Gradle normalizes inputs for the
+  // cache key. Files are hashed as they are, without the ABI extraction of
+  // compile classpaths, the ignore rules of runtime classpaths, line ending
+  // normalization, or the path sensitivity of the property. Such
+  // differences are reported, although they do not change the cache key.
+  public static @NotNull SortedMap<String, String> fingerprint(
+      @NotNull Task task,
+      @NotNull Path rootDirectory,
+      @NotNull FileHashes fileHashes)
+  {
+    SortedMap<String, String> inputs = new TreeMap<>();
+    inputs.put(IMPLEMENTATION, hash(implementationName(task.getClass())));
+    for (Map.Entry<String, Object> property : task.getInputs().getProperties().entrySet()) {
+      inputs.put(PROPERTY_PREFIX + property.getKey(), hash(valueString(property.getValue())));
+    }
+    Map<String, List<String>> fileHashesByName = new TreeMap<>();
+    for (File file : task.getInputs().getFiles().getAsFileTree().getFiles()) {
+      // Files outside of the build, like dependencies, are usually in a
+      // directory which differs between machines. Only their name is kept.
+      Path path = file.toPath().toAbsolutePath();
+      String name = path.startsWith(rootDirectory)
+          ? rootDirectory.relativize(path).toString().replace('\\', '/')
+          : path.getFileName().toString();
+      fileHashesByName.computeIfAbsent(FILE_PREFIX + name, key -> new ArrayList<>()).add(fileHashes.hash(path));
+    }
+    for (Map.Entry<String, List<String>> entry : fileHashesByName.entrySet()) {
+      inputs.put(entry.getKey(), combine(entry.getValue()));
+    }
+    return inputs;
+  }
+
+  public static void write(@NotNull Path file, @NotNull Map<String, ? extends Map<String, String>> recording) {
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = new OutputStreamWriter(
+          new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))
+      {
+        for (Map.Entry<String, ? extends Map<String, String>> task : new TreeMap<>(recording).entrySet()) {
+          writer.write(task.getKey() + "\n");
+          for (Map.Entry<String, String> input : task.getValue().entrySet()) {
+            writer.write("\t" + input.getKey() + "\t" + input.getValue() + "\n");
+          }
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static @NotNull SortedMap<String, SortedMap<String, String>> read(@NotNull Path file) {
+    SortedMap<String, SortedMap<String, String>> recording = new TreeMap<>();
+    try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+        new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8)))
+    {
+      SortedMap<String, String> inputs = null;
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        if (!line.startsWith("\t")) {
+          inputs = recording.computeIfAbsent(line, path -> new TreeMap<>());
+          continue;
+        }
+        int separator = line.lastIndexOf('\t');
+        if (inputs == null || separator == 0) {
+          throw new GradleException("Invalid recording of task inputs: " + file);
+        }
+        inputs.put(line.substring(1, separator), line.substring(separator + 1));
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return recording;
+  }
+
+  public static @NotNull List<String> diff(
+      @NotNull Map<String, ? extends Map<String, String>> baseline,
+      @NotNull Map<String, ? extends Map<String, String>> current)
+  {
+    List<String> differences = new ArrayList<>();
+    TreeSet<String> taskPaths = new TreeSet<>(baseline.keySet());
+    taskPaths.addAll(current.keySet());
+    for (String taskPath : taskPaths) {
+      Map<String, String> baselineInputs = baseline.get(taskPath);
+      Map<String, String> currentInputs = current.get(taskPath);
+      if (baselineInputs == null) {
+        differences.add(taskPath + ": only in current build");
+      }
+      else if (currentInputs == null) {
+        differences.add(taskPath + ": only in baseline");
+      }
+      else {
+        TreeSet<String> inputs = new TreeSet<>(baselineInputs.keySet());
+        inputs.addAll(currentInputs.keySet());
+        for (String input : inputs) {
+          String baselineHash = baselineInputs.get(input);
+          String currentHash = currentInputs.get(input);
+          if (baselineHash == null) {
+            differences.add(taskPath + ": " + input + " was added");
+          }
+          else if (currentHash == null) {
+            differences.add(taskPath + ": " + input + " was removed");
+          }
+          else if (!baselineHash.equals(currentHash)) {
+            differences.add(taskPath + ": " + input + " differs");
+          }
+        }
+      }
+    }
+    return differences;
+  }
+
+  static @NotNull String valueString(@Nullable Object value) {
+    if (value == null) {
+      return "null";
+    }
+    // Objects without toString() would differ in every build.
+    String string = value.toString();
+    String identity = value.getClass().getName() + "@" + Integer.toHexString(System.identityHashCode(value));
+    return string.equals(identity) ? implementationName(value.getClass()) : string;
+  }
+
+  private static @NotNull String implementationName(@NotNull Class<?> type) {
+    // Gradle generates subclasses of tasks and other managed types.
+    String name = type.getName();
+    return name.endsWith("_Decorated") ? name.substring(0, name.length() - "_Decorated".length()) : name;
+  }
+
+  private static @NotNull String hash(@NotNull String value) {
+    Hasher hasher = new Hasher();
+    hasher.putString(value);
+    return hasher.hash().substring(0, HASH_LENGTH);
+  }
+
+  private static @NotNull String hashFile(@NotNull Path file) {
+    Hasher hasher = new Hasher();
+    byte[] buffer = new byte[8192];
+    try (InputStream stream = Files.newInputStream(file)) {
+      for (int length = stream.read(buffer); length >= 0; length = stream.read(buffer)) {
+        hasher.putBytes(buffer, 0, length);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return hasher.hash().substring(0, HASH_LENGTH);
+  }
+
+  // Combines the hashes of files with the same name, independent of the
+  // order in which the files were visited.
+  static @NotNull String combine(@NotNull List<String> hashes) {
+    if (hashes.size() == 1) {
+      return hashes.get(0);
+    }
+    List<String> sortedHashes = new ArrayList<>(hashes);
+    Collections.sort(sortedHashes);
+    return hash(String.join("", sortedHashes));
+  }
+
+  // Many tasks share the same input files, like the jars of dependencies.
+  // Each file is only hashed again when its size or modification time has changed.
+  public static final class FileHashes {
+    private final @NotNull Map<Path, FileHash> hashes = new ConcurrentHashMap<>();
+
+    public @NotNull String hash(@NotNull Path file) {
+      long length;
+      long lastModified;
+      try {
+        length = Files.size(file);
+        lastModified = Files.getLastModifiedTime(file).toMillis();
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      FileHash hash = hashes.get(file);
+      if (hash == null || hash.length != length || hash.lastModified != lastModified) {
+        hash = new FileHash(length, lastModified, hashFile(file));
+        hashes.put(file, hash);
+      }
+      return hash.hash;
+    }
+  }
+
+  private static final class FileHash {
+    private final long length;
+    private final long lastModified;
+    private final @NotNull String hash;
+
+    private FileHash(long length, long lastModified, @NotNull String hash) {
+      this.length = length;
+      this.lastModified = lastModified;
+      this.hash = hash;
+    }
+  }
+}
@@ -0,0 +1,198 @@
+package dev.johanness.gradle_helper._internal;
+
+import groovy.json.JsonSlurper;
+import org.gradle.api.GradleException;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+public final class UpdateReport {
+  private static final @NotNull Comparator<Entry> SLOWEST_FIRST =
+      Comparator.comparing(Entry::getResolutionTime).reversed()
+          .thenComparing(Entry::getProjectPath)
+          .thenComparing(Entry::getConfiguration);
+
+  private final @NotNull List<Entry> entries;
+
+  public UpdateReport(@NotNull Collection<Entry> entries) {
+    this.entries = new ArrayList<>(entries);
+    this.entries.sort(SLOWEST_FIRST);
+  }
+
+  public @NotNull List<Entry> entries() {
+    return List.copyOf(entries);
+  }
+
+  public @NotNull List<Entry> slowest(int limit) {
+    return List.copyOf(entries.subList(0, Math.min(limit, entries.size())));
+  }
+
+  public void writeJson(@NotNull Path file) {
+    write(file, writer -> {
+      writer.write("{\n  \"configurations\": [");
+      for (int i = 0; i < entries.size(); i++) {
+        Entry entry = entries.get(i);
+        writer.write(i == 0 ? "\n" : ",\n");
+        writer.write("    {\"project\": " + jsonString(entry.projectPath) +
+                     ", \"configuration\": " + jsonString(entry.configuration) +
+                     ", \"resolutionMillis\": " + millis(entry.resolutionTime) +
+                     ", \"components\": " + entry.components +
+                     ", \"lockEntries\": " + entry.lockEntries + "}");
+      }
+      writer.write("\n  ]\n}\n");
+    });
+  }
+
+  public void writeHtml(@NotNull Path file) {
+    write(file, writer -> {
+      writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n" +
+                   "<title>Dependency update report</title>\n</head>\n<body>\n" +
+                   "<h1>Dependency update report</h1>\n<table>\n" +
+                   "<tr><th>Project</th><th>Configuration</th><th>Resolution time (ms)</th>" +
+                   "<th>Components</th><th>Lockfile entries</th></tr>\n");
+      for (Entry entry : entries) {
+        writer.write("<tr><td>" + htmlString(entry.projectPath) +
+                     "</td><td>" + htmlString(entry.configuration) +
+                     "</td><td>" + millis(entry.resolutionTime) +
+                     "</td><td>" + entry.components +
+                     "</td><td>" + entry.lockEntries + "</td></tr>\n");
+      }
+      writer.write("</table>\n</body>\n</html>\n");
+    });
+  }
+
+  // Returns the total resolution time of each project in a report written by
+  // writeJson(), or an empty map if the file does not exist. The report may
+  // have been reformatted, for example when it was committed to the repository.
+  public static @NotNull Map<String, Double> readResolutionMillisByProject(@NotNull Path file) {
+    Map<String, Double> millisByProject = new TreeMap<>();
+    if (!Files.isRegularFile(file)) {
+      return millisByProject;
+    }
+    Object report;
+    try {
+      report = new JsonSlurper().parse(file.toFile(), StandardCharsets.UTF_8.name());
+    }
+    catch (RuntimeException e) {
+      throw new GradleException("Cannot read the dependency update report " + file, e);
+    }
+    Object configurations = report instanceof Map ? ((Map<?, ?>) report).get("configurations") : null;
+    if (!(configurations instanceof List)) {
+      throw new GradleException("Dependency update report " + file + " has no list of configurations.");
+    }
+    for (Object configuration : (List<?>) configurations) {
+      Object project = configuration instanceof Map ? ((Map<?, ?>) configuration).get("project") : null;
+      Object millis = configuration instanceof Map ? ((Map<?, ?>) configuration).get("resolutionMillis") : null;
+      if (!(project instanceof String) || !(millis instanceof Number)) {
+        throw new GradleException("Dependency update report " + file + " contains an invalid entry: " + configuration);
+      }
+      millisByProject.merge((String) project, ((Number) millis).doubleValue(), Double::sum);
+    }
+    return millisByProject;
+  }
+
+  private static void write(@NotNull Path file, @NotNull WriterAction action) {
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        action.write(writer);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static @NotNull String millis(@NotNull Duration duration) {
+    return String.format(Locale.ROOT, "%.1f", duration.toNanos() / 1_000_000.0);
+  }
+
+  private static @NotNull String jsonString(@NotNull String value) {
+    StringBuilder builder = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        builder.append('\\').append(c);
+      }
+      else if (c < 0x20) {
+        builder.append(String.format("\\u%04x", (int) c));
+      }
+      else {
+        builder.append(c);
+      }
+    }
+    return builder.append('"').toString();
+  }
+
+  private static @NotNull String htmlString(@NotNull String value) {
+    return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;");
+  }
+
+  private interface WriterAction {
+    void write(@NotNull Writer writer) throws IOException;
+  }
+
+  public static final class Entry {
+    private final @NotNull String projectPath;
+    private final @NotNull String configuration;
+    private final @NotNull Duration resolutionTime;
+    private final int components;
+    private final int lockEntries;
+
+    public Entry(
+        @NotNull String projectPath,
+        @NotNull String configuration,
+        @NotNull Duration resolutionTime,
+        int components,
+        int lockEntries)
+    {
+      this.projectPath = projectPath;
+      this.configuration = configuration;
+      this.resolutionTime = resolutionTime;
+      this.components = components;
+      this.lockEntries = lockEntries;
+    }
+
+    public static @NotNull Entry of(@NotNull String projectPath, @NotNull LockedConfiguration configuration) {
+      return new Entry(
+          projectPath,
+          configuration.getName(),
+          configuration.getResolutionTime(),
+          configuration.getComponents(),
+          configuration.getModules().size());
+    }
+
+    public @NotNull String getProjectPath() {
+      return projectPath;
+    }
+
+    public @NotNull String getConfiguration() {
+      return configuration;
+    }
+
+    public @NotNull Duration getResolutionTime() {
+      return resolutionTime;
+    }
+
+    public int getComponents() {
+      return components;
+    }
+
+    public int getLockEntries() {
+      return lockEntries;
+    }
+  }
+}
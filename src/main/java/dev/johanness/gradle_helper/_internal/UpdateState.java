@@ -0,0 +1,93 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Properties;
+
+public final class UpdateState {
+  private static final @NotNull String FINGERPRINT_KEY = "fingerprint";
+  private static final @NotNull String LOCK_STATE_KEY = "lockState";
+  private static final @NotNull String RESOLVED_AT_KEY = "resolvedAt";
+  private static final @NotNull String DYNAMIC_KEY = "dynamic";
+
+  private final @NotNull String fingerprint;
+  private final @NotNull String lockState;
+  private final @NotNull Instant resolvedAt;
+  private final boolean dynamic;
+
+  public UpdateState(
+      @NotNull String fingerprint,
+      @NotNull String lockState,
+      @NotNull Instant resolvedAt,
+      boolean dynamic)
+  {
+    this.fingerprint = fingerprint;
+    this.lockState = lockState;
+    this.resolvedAt = resolvedAt;
+    this.dynamic = dynamic;
+  }
+
+  public static @Nullable UpdateState read(@NotNull Path file) {
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    String fingerprint = properties.getProperty(FINGERPRINT_KEY);
+    String lockState = properties.getProperty(LOCK_STATE_KEY);
+    String resolvedAt = properties.getProperty(RESOLVED_AT_KEY);
+    String dynamic = properties.getProperty(DYNAMIC_KEY);
+    if (fingerprint == null || lockState == null || resolvedAt == null || dynamic == null) {
+      return null;
+    }
+    try {
+      return new UpdateState(fingerprint, lockState, Instant.parse(resolvedAt), Boolean.parseBoolean(dynamic));
+    }
+    catch (RuntimeException e) {
+      return null; // Treat a corrupted file like a missing file.
+    }
+  }
+
+  public void write(@NotNull Path file) {
+    Properties properties = new Properties();
+    properties.setProperty(FINGERPRINT_KEY, fingerprint);
+    properties.setProperty(LOCK_STATE_KEY, lockState);
+    properties.setProperty(RESOLVED_AT_KEY, resolvedAt.toString());
+    properties.setProperty(DYNAMIC_KEY, Boolean.toString(dynamic));
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        properties.store(writer, null);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public boolean isUpToDate(
+      @NotNull String currentFingerprint,
+      @NotNull LockState currentLockState,
+      @NotNull Duration dynamicVersionsExpireAfter,
+      @NotNull Instant now)
+  {
+    return fingerprint.equals(currentFingerprint) &&
+           lockState.equals(currentLockState.fingerprint()) &&
+           (!dynamic || resolvedAt.plus(dynamicVersionsExpireAfter).isAfter(now));
+  }
+}
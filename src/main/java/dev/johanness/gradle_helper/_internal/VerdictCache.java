@@ -0,0 +1,82 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+public final class VerdictCache<K> {
+  private static final int SEGMENTS = 16; // must be a power of two
+
+  private final @NotNull Segment<K> @NotNull [] segments;
+  private final @NotNull LongAdder hits = new LongAdder();
+  private final @NotNull LongAdder misses = new LongAdder();
+
+  public VerdictCache(int maximumSize) {
+    if (maximumSize < SEGMENTS) {
+      throw new IllegalArgumentException("maximumSize must be at least " + SEGMENTS + ": " + maximumSize);
+    }
+    // Java cannot create generic arrays. The array only ever holds Segment<K>.
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    Segment<K>[] segments = new Segment[SEGMENTS];
+    for (int i = 0; i < SEGMENTS; i++) {
+      segments[i] = new Segment<>(maximumSize / SEGMENTS);
+    }
+    this.segments = segments;
+  }
+
+  public boolean get(@NotNull K key, @NotNull Predicate<? super K> verdict) {
+    Segment<K> segment = segments[spread(key.hashCode()) & (SEGMENTS - 1)];
+    Boolean cached;
+    synchronized (segment) {
+      cached = segment.get(key);
+    }
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+
+    misses.increment();
+    boolean result = verdict.test(key);
+    synchronized (segment) {
+      segment.put(key, result);
+    }
+    return result;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public double hitRate() {
+    long hits = hits();
+    long requests = hits + misses();
+    return requests == 0 ? 0 : (double) hits / requests;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  private static final class Segment<K> extends LinkedHashMap<K, Boolean> {
+    private static final long serialVersionUID = 1L;
+
+    private final int maximumSize;
+
+    private Segment(int maximumSize) {
+      super(16, 0.75f, true);
+      this.maximumSize = maximumSize;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<K, Boolean> eldest) {
+      return size() > maximumSize;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public final class VersionClassifier {
+  private static final int LETTERS = 'z' - 'a' + 1;
+  private static final char @NotNull [] @NotNull [] NO_QUALIFIERS = new char[0][];
+
+  // The qualifiers are based on https://docs.gradle.org/current/userguide/single_versions.html#version_ordering
+  public static final @NotNull VersionClassifier DEFAULT =
+      new VersionClassifier(List.of("release", "ga", "final", "sp"));
+
+  private final char @NotNull [] @NotNull [] @NotNull [] qualifiersByFirstLetter;
+
+  public VersionClassifier(@NotNull Collection<String> toleratedQualifiers) {
+    List<List<char[]>> qualifiers = new ArrayList<>(LETTERS);
+    for (int i = 0; i < LETTERS; i++) {
+      qualifiers.add(new ArrayList<>());
+    }
+    for (String qualifier : toleratedQualifiers) {
+      String lowerCase = validate(qualifier);
+      for (String other : toleratedQualifiers) {
+        if (qualifier != other && validate(other).startsWith(lowerCase)) {
+          // Otherwise, the first matching qualifier would not always be the right choice.
+          throw new IllegalArgumentException("Qualifier '" + qualifier + "' must not be a prefix of '" + other + "'");
+        }
+      }
+      qualifiers.get(lowerCase.charAt(0) - 'a').add(lowerCase.toCharArray());
+    }
+    qualifiersByFirstLetter = new char[LETTERS][][];
+    for (int i = 0; i < LETTERS; i++) {
+      qualifiersByFirstLetter[i] = qualifiers.get(i).isEmpty()
+          ? NO_QUALIFIERS
+          : qualifiers.get(i).toArray(new char[0][]);
+    }
+  }
+
+  // Equivalent to (\d|release|ga|final|sp|[-._+])+ with Pattern.CASE_INSENSITIVE for the default qualifiers.
+  @Contract(pure = true)
+  public boolean looksLikeRelease(@NotNull CharSequence version) {
+    int length = version.length();
+    if (length == 0) {
+      return false;
+    }
+    int index = 0;
+    scan:
+    while (index < length) {
+      char c = version.charAt(index);
+      if (isDigitOrSeparator(c)) {
+        index++;
+        continue;
+      }
+      int letter = toLowerCase(c) - 'a';
+      if (letter < 0 || letter >= LETTERS) {
+        return false;
+      }
+      for (char[] qualifier : qualifiersByFirstLetter[letter]) {
+        if (regionMatches(version, index, qualifier)) {
+          index += qualifier.length;
+          continue scan;
+        }
+      }
+      return false;
+    }
+    return true;
+  }
+
+  @Contract(pure = true)
+  public boolean looksLikePreRelease(@NotNull CharSequence version) {
+    return !looksLikeRelease(version);
+  }
+
+  private static boolean isDigitOrSeparator(char c) {
+    return (c >= '0' && c <= '9') || c == '-' || c == '.' || c == '_' || c == '+';
+  }
+
+  private static char toLowerCase(char c) {
+    // Only ASCII letters are folded, like Pattern.CASE_INSENSITIVE without UNICODE_CASE.
+    return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+  }
+
+  private static boolean regionMatches(@NotNull CharSequence version, int offset, char @NotNull [] qualifier) {
+    if (version.length() - offset < qualifier.length) {
+      return false;
+    }
+    for (int i = 0; i < qualifier.length; i++) {
+      if (toLowerCase(version.charAt(offset + i)) != qualifier[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static @NotNull String validate(@NotNull String qualifier) {
+    if (qualifier.isEmpty()) {
+      throw new IllegalArgumentException("Qualifier must not be empty");
+    }
+    StringBuilder lowerCase = new StringBuilder(qualifier.length());
+    for (int i = 0; i < qualifier.length(); i++) {
+      char c = toLowerCase(qualifier.charAt(i));
+      if (c < 'a' || c > 'z') {
+        throw new IllegalArgumentException("Qualifier must only consist of ASCII letters: " + qualifier);
+      }
+      lowerCase.append(c);
+    }
+    return lowerCase.toString();
+  }
+}
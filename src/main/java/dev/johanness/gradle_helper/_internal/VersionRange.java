@@ -0,0 +1,153 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+// Version ranges like "[1.0,2.0)", "]1.0,)" or "1.+", and single versions.
+// Versions are ordered similar to Gradle.
+public final class VersionRange {
+  public static final @NotNull Comparator<String> VERSION_ORDER = VersionRange::compareVersions;
+
+  private static final @NotNull List<String> SPECIAL_QUALIFIERS =
+      List.of("dev", "rc", "snapshot", "final", "ga", "release", "sp");
+
+  private final @Nullable String lower;
+  private final boolean lowerInclusive;
+  private final @Nullable String upper;
+  private final boolean upperInclusive;
+  private final @Nullable String prefix;
+
+  private VersionRange(
+      @Nullable String lower,
+      boolean lowerInclusive,
+      @Nullable String upper,
+      boolean upperInclusive,
+      @Nullable String prefix)
+  {
+    this.lower = lower;
+    this.lowerInclusive = lowerInclusive;
+    this.upper = upper;
+    this.upperInclusive = upperInclusive;
+    this.prefix = prefix;
+  }
+
+  public static @NotNull VersionRange parse(@NotNull String expression) {
+    String trimmed = expression.trim();
+    int separator = trimmed.indexOf(',');
+    if (trimmed.length() >= 2 && separator > 0 && "[]()".indexOf(trimmed.charAt(0)) >= 0) {
+      char open = trimmed.charAt(0);
+      char close = trimmed.charAt(trimmed.length() - 1);
+      String lower = trimmed.substring(1, separator).trim();
+      String upper = trimmed.substring(separator + 1, trimmed.length() - 1).trim();
+      return new VersionRange(
+          lower.isEmpty() ? null : lower, open == '[',
+          upper.isEmpty() ? null : upper, close == ']',
+          null);
+    }
+    if (trimmed.endsWith("+")) {
+      return new VersionRange(null, false, null, false, trimmed.substring(0, trimmed.length() - 1));
+    }
+    return new VersionRange(trimmed, true, trimmed, true, null);
+  }
+
+  public boolean contains(@NotNull String version) {
+    if (prefix != null) {
+      return version.startsWith(prefix);
+    }
+    if (lower != null) {
+      int comparison = compareVersions(version, lower);
+      if (comparison < 0 || comparison == 0 && !lowerInclusive) {
+        return false;
+      }
+    }
+    if (upper != null) {
+      int comparison = compareVersions(version, upper);
+      return comparison < 0 || comparison == 0 && upperInclusive;
+    }
+    return true;
+  }
+
+  public static int compareVersions(@NotNull String a, @NotNull String b) {
+    List<String> partsA = parts(a);
+    List<String> partsB = parts(b);
+    for (int i = 0; i < Math.min(partsA.size(), partsB.size()); i++) {
+      int comparison = compareParts(partsA.get(i), partsB.get(i));
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    if (partsA.size() == partsB.size()) {
+      return 0;
+    }
+    // An additional numeric part makes a version larger ("1.0.1" > "1.0"),
+    // an additional qualifier makes it smaller ("1.0-rc" < "1.0").
+    boolean aIsLonger = partsA.size() > partsB.size();
+    String extra = aIsLonger ? partsA.get(partsB.size()) : partsB.get(partsA.size());
+    boolean longerIsLarger = isNumeric(extra);
+    return aIsLonger == longerIsLarger ? 1 : -1;
+  }
+
+  private static int compareParts(@NotNull String a, @NotNull String b) {
+    boolean numericA = isNumeric(a);
+    boolean numericB = isNumeric(b);
+    if (numericA && numericB) {
+      String trimmedA = a.replaceFirst("^0+(?=.)", "");
+      String trimmedB = b.replaceFirst("^0+(?=.)", "");
+      return trimmedA.length() != trimmedB.length()
+          ? Integer.compare(trimmedA.length(), trimmedB.length())
+          : trimmedA.compareTo(trimmedB);
+    }
+    if (numericA != numericB) {
+      return numericA ? 1 : -1;
+    }
+    int specialA = SPECIAL_QUALIFIERS.indexOf(a.toLowerCase());
+    int specialB = SPECIAL_QUALIFIERS.indexOf(b.toLowerCase());
+    if (specialA >= 0 || specialB >= 0) {
+      // Qualifiers after "dev" and before "rc" in the list are ordinary qualifiers.
+      return Integer.compare(rank(specialA), rank(specialB));
+    }
+    return a.compareTo(b);
+  }
+
+  private static int rank(int special) {
+    return special < 0 ? 1 : special == 0 ? 0 : special + 1;
+  }
+
+  private static @NotNull List<String> parts(@NotNull String version) {
+    List<String> parts = new ArrayList<>();
+    StringBuilder part = new StringBuilder();
+    for (int i = 0; i < version.length(); i++) {
+      char c = version.charAt(i);
+      if (c == '.' || c == '-' || c == '_' || c == '+') {
+        addPart(parts, part);
+      }
+      else {
+        if (part.length() > 0 && isDigit(part.charAt(part.length() - 1)) != isDigit(c)) {
+          addPart(parts, part);
+        }
+        part.append(c);
+      }
+    }
+    addPart(parts, part);
+    return parts;
+  }
+
+  private static void addPart(@NotNull List<String> parts, @NotNull StringBuilder part) {
+    if (part.length() > 0) {
+      parts.add(part.toString());
+      part.setLength(0);
+    }
+  }
+
+  private static boolean isNumeric(@NotNull String part) {
+    return !part.isEmpty() && isDigit(part.charAt(0));
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
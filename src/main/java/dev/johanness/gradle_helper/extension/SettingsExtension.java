@@ -1,5 +1,8 @@
 package dev.johanness.gradle_helper.extension;
 
+import dev.johanness.gradle_helper.extension.block.BuildCache;
+import dev.johanness.gradle_helper.extension.block.BuildHistory;
+import dev.johanness.gradle_helper.extension.block.ConfigurationBudget;
 import dev.johanness.gradle_helper.extension.block.DependencyLocking;
 import dev.johanness.gradle_helper.extension.block.DependencyResolution;
 import org.gradle.api.Action;
@@ -15,6 +18,9 @@ public class SettingsExtension {
   private final @NotNull Property<String> defaultJavaEncoding;
   private final @NotNull DependencyLocking dependencyLocking;
   private final @NotNull DependencyResolution dependencyResolution;
+  private final @NotNull BuildCache buildCache;
+  private final @NotNull BuildHistory buildHistory;
+  private final @NotNull ConfigurationBudget configurationBudget;
 
   @Inject
   public SettingsExtension(@NotNull Settings settings, @NotNull ObjectFactory objectFactory) {
@@ -22,6 +28,9 @@ public SettingsExtension(@NotNull Settings settings, @NotNull ObjectFactory obje
     defaultJavaEncoding = objectFactory.property(String.class);
     dependencyLocking = objectFactory.newInstance(DependencyLocking.class);
     dependencyResolution = objectFactory.newInstance(DependencyResolution.class);
+    buildCache = objectFactory.newInstance(BuildCache.class);
+    buildHistory = objectFactory.newInstance(BuildHistory.class);
+    configurationBudget = objectFactory.newInstance(ConfigurationBudget.class);
   }
 
   public void useVersionRangesWithDependencyLocking() {
@@ -51,4 +60,27 @@ public void dependencyResolution(@NotNull Action<DependencyResolution> action) {
     action.execute(dependencyResolution);
   }
 
+  public @NotNull BuildCache getBuildCache() {
+    return buildCache;
+  }
+
+  public void buildCache(@NotNull Action<BuildCache> action) {
+    action.execute(buildCache);
+  }
+
+  public @NotNull BuildHistory getBuildHistory() {
+    return buildHistory;
+  }
+
+  public void buildHistory(@NotNull Action<BuildHistory> action) {
+    action.execute(buildHistory);
+  }
+
+  public @NotNull ConfigurationBudget getConfigurationBudget() {
+    return configurationBudget;
+  }
+
+  public void configurationBudget(@NotNull Action<ConfigurationBudget> action) {
+    action.execute(configurationBudget);
+  }
 }
@@ -0,0 +1,32 @@
+package dev.johanness.gradle_helper.extension.block;
+
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+
+public class BuildCache {
+  private final @NotNull Property<Boolean> normalize;
+  private final @NotNull Property<Boolean> report;
+  private final @NotNull Property<Boolean> recordTaskInputs;
+
+  @Inject
+  public BuildCache(@NotNull ObjectFactory objectFactory) {
+    normalize = objectFactory.property(Boolean.class);
+    report = objectFactory.property(Boolean.class);
+    recordTaskInputs = objectFactory.property(Boolean.class);
+  }
+
+  public @NotNull Property<Boolean> getNormalize() {
+    return normalize;
+  }
+
+  public @NotNull Property<Boolean> getReport() {
+    return report;
+  }
+
+  public @NotNull Property<Boolean> getRecordTaskInputs() {
+    return recordTaskInputs;
+  }
+}
@@ -0,0 +1,26 @@
+package dev.johanness.gradle_helper.extension.block;
+
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+
+public class BuildHistory {
+  private final @NotNull Property<Boolean> enable;
+  private final @NotNull Property<Integer> maxBuilds;
+
+  @Inject
+  public BuildHistory(@NotNull ObjectFactory objectFactory) {
+    enable = objectFactory.property(Boolean.class);
+    maxBuilds = objectFactory.property(Integer.class);
+  }
+
+  public @NotNull Property<Boolean> getEnable() {
+    return enable;
+  }
+
+  public @NotNull Property<Integer> getMaxBuilds() {
+    return maxBuilds;
+  }
+}
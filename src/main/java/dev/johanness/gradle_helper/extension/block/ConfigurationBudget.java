@@ -0,0 +1,33 @@
+package dev.johanness.gradle_helper.extension.block;
+
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.time.Duration;
+
+public class ConfigurationBudget {
+  private final @NotNull Property<Duration> total;
+  private final @NotNull Property<Duration> perProject;
+  private final @NotNull Property<Boolean> failBuild;
+
+  @Inject
+  public ConfigurationBudget(@NotNull ObjectFactory objectFactory) {
+    total = objectFactory.property(Duration.class);
+    perProject = objectFactory.property(Duration.class);
+    failBuild = objectFactory.property(Boolean.class);
+  }
+
+  public @NotNull Property<Duration> getTotal() {
+    return total;
+  }
+
+  public @NotNull Property<Duration> getPerProject() {
+    return perProject;
+  }
+
+  public @NotNull Property<Boolean> getFailBuild() {
+    return failBuild;
+  }
+}
@@ -1,20 +1,36 @@
 package dev.johanness.gradle_helper.extension.block;
 
 import org.gradle.api.artifacts.dsl.LockMode;
+import org.gradle.api.file.DirectoryProperty;
 import org.gradle.api.model.ObjectFactory;
 import org.gradle.api.provider.Property;
 import org.jetbrains.annotations.NotNull;
 
 import javax.inject.Inject;
+import java.time.Duration;
 
 public class DependencyLocking {
   private final @NotNull Property<Boolean> enable;
   private final @NotNull Property<LockMode> lockMode;
+  private final @NotNull Property<Integer> maxParallelUpdates;
+  private final @NotNull Property<Boolean> incrementalUpdates;
+  private final @NotNull Property<Duration> dynamicVersionsExpireAfter;
+  private final @NotNull Property<Boolean> refreshDynamicVersionsOnly;
+  private final @NotNull Property<Boolean> resolveArtifacts;
+  private final @NotNull Property<Boolean> deduplicateConfigurations;
+  private final @NotNull DirectoryProperty seedRepository;
 
   @Inject
   public DependencyLocking(@NotNull ObjectFactory objectFactory) {
     enable = objectFactory.property(Boolean.class);
     lockMode = objectFactory.property(LockMode.class);
+    maxParallelUpdates = objectFactory.property(Integer.class);
+    incrementalUpdates = objectFactory.property(Boolean.class);
+    dynamicVersionsExpireAfter = objectFactory.property(Duration.class);
+    refreshDynamicVersionsOnly = objectFactory.property(Boolean.class);
+    resolveArtifacts = objectFactory.property(Boolean.class);
+    deduplicateConfigurations = objectFactory.property(Boolean.class);
+    seedRepository = objectFactory.directoryProperty();
   }
 
   public @NotNull Property<Boolean> getEnable() {
@@ -24,4 +40,32 @@ public DependencyLocking(@NotNull ObjectFactory objectFactory) {
   public @NotNull Property<LockMode> getLockMode() {
     return lockMode;
   }
+
+  public @NotNull Property<Integer> getMaxParallelUpdates() {
+    return maxParallelUpdates;
+  }
+
+  public @NotNull Property<Boolean> getIncrementalUpdates() {
+    return incrementalUpdates;
+  }
+
+  public @NotNull Property<Duration> getDynamicVersionsExpireAfter() {
+    return dynamicVersionsExpireAfter;
+  }
+
+  public @NotNull Property<Boolean> getRefreshDynamicVersionsOnly() {
+    return refreshDynamicVersionsOnly;
+  }
+
+  public @NotNull Property<Boolean> getResolveArtifacts() {
+    return resolveArtifacts;
+  }
+
+  public @NotNull Property<Boolean> getDeduplicateConfigurations() {
+    return deduplicateConfigurations;
+  }
+
+  public @NotNull DirectoryProperty getSeedRepository() {
+    return seedRepository;
+  }
 }
@@ -10,11 +10,13 @@
 public class DependencyResolution {
   private final @NotNull Property<Boolean> rejectPreReleases;
   private final @NotNull ListProperty<String> whitelist;
+  private final @NotNull Property<Boolean> statistics;
 
   @Inject
   public DependencyResolution(@NotNull ObjectFactory objectFactory) {
     rejectPreReleases = objectFactory.property(Boolean.class);
     whitelist = objectFactory.listProperty(String.class).empty();
+    statistics = objectFactory.property(Boolean.class);
   }
 
   public @NotNull Property<Boolean> getRejectPreReleases() {
@@ -25,6 +27,10 @@ public DependencyResolution(@NotNull ObjectFactory objectFactory) {
     return whitelist;
   }
 
+  public @NotNull Property<Boolean> getStatistics() {
+    return statistics;
+  }
+
   public void whitelist(@NotNull String pattern) {
     whitelist.add(pattern);
   }
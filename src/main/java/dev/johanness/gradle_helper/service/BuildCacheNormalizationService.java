@@ -0,0 +1,81 @@
+package dev.johanness.gradle_helper.service;
+
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Collects which tasks the build cache normalization has changed while the
+// tasks are configured. Nothing is collected when the configuration cache is reused.
+public abstract class BuildCacheNormalizationService
+    implements BuildService<BuildCacheNormalizationService.Parameters>, AutoCloseable
+{
+  private static final @NotNull Logger LOGGER = Logging.getLogger(BuildCacheNormalizationService.class);
+
+  private final @NotNull Map<String, Set<String>> changes = new ConcurrentSkipListMap<>();
+  private final @NotNull Map<String, Set<String>> warnings = new ConcurrentSkipListMap<>();
+
+  public void changed(@NotNull String taskPath, @NotNull String change) {
+    changes.computeIfAbsent(taskPath, path -> new ConcurrentSkipListSet<>()).add(change);
+  }
+
+  public void warn(@NotNull String taskPath, @NotNull String warning) {
+    if (warnings.computeIfAbsent(taskPath, path -> new ConcurrentSkipListSet<>()).add(warning)) {
+      LOGGER.warn("gradle-helper: Task {} {}", taskPath, warning);
+    }
+  }
+
+  public @NotNull Map<String, Set<String>> changes() {
+    return changes;
+  }
+
+  public @NotNull Map<String, Set<String>> warnings() {
+    return warnings;
+  }
+
+  @Override
+  public void close() {
+    if (!getParameters().getReport().getOrElse(false) || (changes.isEmpty() && warnings.isEmpty())) {
+      return;
+    }
+    Path reportFile = getParameters().getReportFile().get().getAsFile().toPath();
+    try {
+      Files.createDirectories(reportFile.getParent());
+      try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+        for (Map.Entry<String, Set<String>> entry : changes.entrySet()) {
+          writer.write(entry.getKey() + ": " + String.join(", ", entry.getValue()) + "\n");
+        }
+        for (Map.Entry<String, Set<String>> entry : warnings.entrySet()) {
+          for (String warning : entry.getValue()) {
+            writer.write(entry.getKey() + ": WARNING: " + warning + "\n");
+          }
+        }
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    LOGGER.lifecycle("gradle-helper: Normalized {} tasks for the build cache, see {}",
+        changes.size(), reportFile.toUri());
+  }
+
+  public interface Parameters extends BuildServiceParameters {
+    @NotNull Property<Boolean> getReport();
+
+    @NotNull RegularFileProperty getReportFile();
+  }
+}
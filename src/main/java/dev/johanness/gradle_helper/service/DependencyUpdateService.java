@@ -0,0 +1,51 @@
+package dev.johanness.gradle_helper.service;
+
+import dev.johanness.gradle_helper._internal.LockedConfiguration;
+import dev.johanness.gradle_helper._internal.UpdateReport;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+// Gradle uses the service to limit the number of lock updates running at the same time.
+// The service also collects the statistics of all updates for the report.
+public abstract class DependencyUpdateService implements BuildService<BuildServiceParameters.None> {
+  private final @NotNull Queue<UpdateReport.Entry> entries = new ConcurrentLinkedQueue<>();
+  private final @NotNull LongAdder deduplicated = new LongAdder();
+  private final @NotNull Map<String, LockedConfiguration> configurationsByKey = new ConcurrentHashMap<>();
+
+  public void record(@NotNull String projectPath, @NotNull Collection<LockedConfiguration> configurations) {
+    for (LockedConfiguration configuration : configurations) {
+      entries.add(UpdateReport.Entry.of(projectPath, configuration));
+      if (configuration.isDeduplicated()) {
+        deduplicated.increment();
+      }
+    }
+  }
+
+  // Returns a resolved configuration with the given equivalence key, or null.
+  public @Nullable LockedConfiguration equivalentConfiguration(@NotNull String key) {
+    return configurationsByKey.get(key);
+  }
+
+  // Projects are updated in parallel. An equivalent configuration may
+  // therefore be resolved multiple times, but no project waits for another.
+  public void resolvedConfiguration(@NotNull String key, @NotNull LockedConfiguration configuration) {
+    configurationsByKey.putIfAbsent(key, configuration);
+  }
+
+  public long deduplicated() {
+    return deduplicated.sum();
+  }
+
+  public @NotNull UpdateReport report() {
+    return new UpdateReport(entries);
+  }
+}
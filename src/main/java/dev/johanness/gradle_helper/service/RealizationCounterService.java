@@ -0,0 +1,41 @@
+package dev.johanness.gradle_helper.service;
+
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts how many tasks and configurations were realized during the build.
+// Registered tasks and configurations which are never used should not show up.
+public abstract class RealizationCounterService
+    implements BuildService<BuildServiceParameters.None>, AutoCloseable
+{
+  private static final @NotNull Logger LOGGER = Logging.getLogger(RealizationCounterService.class);
+
+  private final @NotNull LongAdder tasks = new LongAdder();
+  private final @NotNull LongAdder configurations = new LongAdder();
+
+  public void taskRealized() {
+    tasks.increment();
+  }
+
+  public void configurationRealized() {
+    configurations.increment();
+  }
+
+  public long tasks() {
+    return tasks.sum();
+  }
+
+  public long configurations() {
+    return configurations.sum();
+  }
+
+  @Override
+  public void close() {
+    LOGGER.info("gradle-helper: Realized {} tasks and {} configurations", tasks(), configurations());
+  }
+}
@@ -0,0 +1,93 @@
+package dev.johanness.gradle_helper.service;
+
+import dev.johanness.gradle_helper._internal.DependencyWhitelist;
+import dev.johanness.gradle_helper._internal.SelectionStatistics;
+import dev.johanness.gradle_helper._internal.VerdictCache;
+import dev.johanness.gradle_helper._internal.VersionClassifier;
+import org.gradle.api.artifacts.ComponentSelection;
+import org.gradle.api.artifacts.component.ModuleComponentIdentifier;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+public abstract class ResolutionPolicyService
+    implements BuildService<ResolutionPolicyService.Parameters>, AutoCloseable
+{
+  private static final @NotNull Logger LOGGER = Logging.getLogger(ResolutionPolicyService.class);
+
+  private static final int VERDICT_CACHE_SIZE = 16 * 1024;
+  private static final int MOST_REJECTED_MODULES = 10;
+
+  private final @NotNull DependencyWhitelist whitelist;
+  // Component selection rules see the same candidates in every configuration of every project.
+  private final @NotNull VerdictCache<ModuleComponentIdentifier> preReleaseVerdicts =
+      new VerdictCache<>(VERDICT_CACHE_SIZE);
+  private final @Nullable SelectionStatistics statistics; // null unless requested
+
+  public ResolutionPolicyService() {
+    whitelist = new DependencyWhitelist(getParameters().getWhitelist().get());
+    statistics = getParameters().getStatistics().getOrElse(false)
+        ? new SelectionStatistics(getParameters().getWhitelist().get())
+        : null;
+  }
+
+  public void rejectPreRelease(@NotNull ComponentSelection selection) {
+    ModuleComponentIdentifier candidate = selection.getCandidate();
+    boolean reject = preReleaseVerdicts.get(candidate, c ->
+        VersionClassifier.DEFAULT.looksLikePreRelease(c.getVersion()) && !whitelist.contains(c));
+    if (statistics != null) {
+      // The verdicts are cached, so the whitelist matches are counted separately.
+      statistics.candidateEvaluated(candidate.getModuleIdentifier(), reject);
+      if (!reject) {
+        countWhitelistMatch(statistics, candidate);
+      }
+    }
+    if (reject) {
+      selection.reject("gradle-helper: Looks like a pre-release");
+    }
+  }
+
+  private void countWhitelistMatch(
+      @NotNull SelectionStatistics statistics,
+      @NotNull ModuleComponentIdentifier candidate)
+  {
+    // Most candidates are releases, which never need the whitelist.
+    if (!VersionClassifier.DEFAULT.looksLikePreRelease(candidate.getVersion())) {
+      return;
+    }
+    int index = whitelist.indexOf(candidate);
+    if (index >= 0) {
+      statistics.whitelistMatched(index);
+    }
+  }
+
+  @Override
+  public void close() {
+    if (preReleaseVerdicts.hits() + preReleaseVerdicts.misses() > 0) {
+      LOGGER.info("gradle-helper: Pre-release verdict cache had {} hits and {} misses ({}% hit rate)",
+          preReleaseVerdicts.hits(), preReleaseVerdicts.misses(),
+          String.format("%.1f", 100 * preReleaseVerdicts.hitRate()));
+    }
+    if (statistics != null) {
+      LOGGER.lifecycle("gradle-helper: Evaluated {} candidates, rejected {}",
+          statistics.evaluated(), statistics.rejected());
+      for (String module : statistics.mostRejectedModules(MOST_REJECTED_MODULES)) {
+        LOGGER.lifecycle("gradle-helper:   {}", module);
+      }
+      for (String entry : statistics.unusedWhitelistEntries()) {
+        LOGGER.lifecycle("gradle-helper: Whitelist entry '{}' was never used", entry);
+      }
+    }
+  }
+
+  public interface Parameters extends BuildServiceParameters {
+    @NotNull ListProperty<String> getWhitelist();
+
+    @NotNull Property<Boolean> getStatistics();
+  }
+}
@@ -0,0 +1,74 @@
+package dev.johanness.gradle_helper.service;
+
+import dev.johanness.gradle_helper._internal.TaskHistory;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.task.TaskExecutionResult;
+import org.gradle.tooling.events.task.TaskFailureResult;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+import org.gradle.tooling.events.task.TaskOperationResult;
+import org.gradle.tooling.events.task.TaskSkippedResult;
+import org.gradle.tooling.events.task.TaskSuccessResult;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Receives the result of every task in the build, and appends them to the
+// task history when the build has finished.
+public abstract class TaskHistoryService
+    implements BuildService<TaskHistoryService.Parameters>, OperationCompletionListener, AutoCloseable
+{
+  private final long build = System.currentTimeMillis();
+  private final @NotNull Queue<TaskHistory.Execution> executions = new ConcurrentLinkedQueue<>();
+
+  @Override
+  public void onFinish(@NotNull FinishEvent event) {
+    if (event instanceof TaskFinishEvent) {
+      TaskFinishEvent taskEvent = (TaskFinishEvent) event;
+      TaskOperationResult result = taskEvent.getResult();
+      executions.add(new TaskHistory.Execution(
+          build,
+          taskEvent.getDescriptor().getTaskPath(),
+          outcome(result),
+          result instanceof TaskExecutionResult && ((TaskExecutionResult) result).isIncremental(),
+          result.getEndTime() - result.getStartTime()));
+    }
+  }
+
+  private static @NotNull TaskHistory.Outcome outcome(@NotNull TaskOperationResult result) {
+    if (result instanceof TaskSuccessResult) {
+      TaskSuccessResult success = (TaskSuccessResult) result;
+      return success.isFromCache() ? TaskHistory.Outcome.FROM_CACHE
+          : success.isUpToDate() ? TaskHistory.Outcome.UP_TO_DATE
+          : TaskHistory.Outcome.EXECUTED;
+    }
+    if (result instanceof TaskSkippedResult) {
+      return TaskHistory.Outcome.SKIPPED;
+    }
+    if (result instanceof TaskFailureResult) {
+      return TaskHistory.Outcome.FAILED;
+    }
+    throw new IllegalArgumentException("Unexpected result: " + result);
+  }
+
+  @Override
+  public void close() {
+    if (!executions.isEmpty()) {
+      TaskHistory.append(
+          getParameters().getHistoryFile().get().getAsFile().toPath(),
+          executions,
+          getParameters().getMaxBuilds().get());
+    }
+  }
+
+  public interface Parameters extends BuildServiceParameters {
+    @NotNull RegularFileProperty getHistoryFile();
+
+    @NotNull Property<Integer> getMaxBuilds();
+  }
+}
@@ -0,0 +1,77 @@
+package dev.johanness.gradle_helper.service;
+
+import dev.johanness.gradle_helper._internal.TaskInputRecording;
+import org.gradle.api.Task;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.logging.Logger;
+import org.gradle.api.logging.Logging;
+import org.gradle.api.services.BuildService;
+import org.gradle.api.services.BuildServiceParameters;
+import org.gradle.tooling.events.FinishEvent;
+import org.gradle.tooling.events.OperationCompletionListener;
+import org.gradle.tooling.events.task.TaskFinishEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+// Records the input fingerprints of all tasks which Gradle executes or
+// checks. Tasks of earlier builds stay in the recording until they run again.
+// The fingerprint is taken when the task has finished. Gradle only
+// reports the path of the task, so the scheduled tasks are kept until then.
+// Nothing is recorded when Gradle reuses the configuration cache.
+public abstract class TaskInputRecorderService
+    implements BuildService<TaskInputRecorderService.Parameters>, OperationCompletionListener, AutoCloseable
+{
+  private static final @NotNull Logger LOGGER = Logging.getLogger(TaskInputRecorderService.class);
+
+  private final @NotNull Map<String, Task> scheduledTasks = new ConcurrentHashMap<>();
+  private final @NotNull TaskInputRecording.FileHashes fileHashes = new TaskInputRecording.FileHashes();
+  private final @NotNull Map<String, SortedMap<String, String>> recording = new ConcurrentSkipListMap<>();
+
+  public void schedule(@NotNull Task task) {
+    scheduledTasks.put(task.getPath(), task);
+  }
+
+  @Override
+  public void onFinish(@NotNull FinishEvent event) {
+    if (event instanceof TaskFinishEvent) {
+      Task task = scheduledTasks.remove(((TaskFinishEvent) event).getDescriptor().getTaskPath());
+      if (task != null) {
+        Path rootDirectory = getParameters().getRootDirectory().get().getAsFile().toPath();
+        try {
+          recording.put(task.getPath(), TaskInputRecording.fingerprint(task, rootDirectory, fileHashes));
+        }
+        catch (RuntimeException e) {
+          // The recording is only a diagnostic aid and must not fail the build.
+          LOGGER.warn("gradle-helper: Cannot record the inputs of task {}: {}", task.getPath(), e.toString());
+        }
+      }
+    }
+  }
+
+  @Override
+  public void close() {
+    if (recording.isEmpty()) {
+      return;
+    }
+    Path file = getParameters().getRecording().get().getAsFile().toPath();
+    Map<String, SortedMap<String, String>> merged = Files.exists(file)
+        ? TaskInputRecording.read(file)
+        : new ConcurrentSkipListMap<>();
+    merged.putAll(recording);
+    TaskInputRecording.write(file, merged);
+    LOGGER.info("gradle-helper: Recorded the inputs of {} tasks in {}", recording.size(), file);
+  }
+
+  public interface Parameters extends BuildServiceParameters {
+    @NotNull DirectoryProperty getRootDirectory();
+
+    @NotNull RegularFileProperty getRecording();
+  }
+}
@@ -0,0 +1,80 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.TaskHistory;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.InvalidUserDataException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Locale;
+
+// Reports how long tasks took in the latest builds, based on the task history.
+public class BuildTrends extends DefaultTask {
+  private final @NotNull RegularFileProperty historyFile;
+  private final @NotNull Property<Integer> builds;
+  private final @NotNull Property<Integer> summarySize;
+
+  @Inject
+  public BuildTrends(@NotNull ObjectFactory objectFactory) {
+    historyFile = objectFactory.fileProperty();
+    builds = objectFactory.property(Integer.class).convention(20);
+    summarySize = objectFactory.property(Integer.class).convention(20);
+  }
+
+  @Internal
+  public @NotNull RegularFileProperty getHistoryFile() {
+    return historyFile;
+  }
+
+  @Internal
+  public @NotNull Property<Integer> getBuilds() {
+    return builds;
+  }
+
+  @Option(option = "builds", description = "Number of latest builds to take into account.")
+  public void setBuilds(@NotNull String builds) {
+    try {
+      int value = Integer.parseInt(builds);
+      if (value > 0) {
+        this.builds.set(value);
+        return;
+      }
+    }
+    catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new InvalidUserDataException("Invalid number of builds '" + builds + "'. Expected a positive number.");
+  }
+
+  @Internal
+  public @NotNull Property<Integer> getSummarySize() {
+    return summarySize;
+  }
+
+  @TaskAction
+  public void report() {
+    List<TaskHistory.Execution> history = TaskHistory.read(historyFile.get().getAsFile().toPath());
+    List<TaskHistory.Trend> trends = TaskHistory.trends(history, builds.get());
+    getLogger().lifecycle(String.format(Locale.ROOT, "%-50s %6s %8s %10s %10s",
+        "Task", "Builds", "Avoided", "p50 (ms)", "p95 (ms)"));
+    int printed = 0;
+    for (TaskHistory.Trend trend : trends) {
+      // Regressions are always listed, even if the task is not among the slowest.
+      if (printed < summarySize.get() || trend.isRegressed()) {
+        getLogger().lifecycle(String.format(Locale.ROOT, "%-50s %6d %8d %10d %10d%s",
+            trend.getTaskPath(), trend.getBuilds(), trend.getAvoided(), trend.getP50(), trend.getP95(),
+            trend.isRegressed() ? "  REGRESSED" : ""));
+        printed++;
+      }
+    }
+    long regressions = trends.stream().filter(TaskHistory.Trend::isRegressed).count();
+    getLogger().lifecycle("{} of {} tasks regressed in the latest build", regressions, trends.size());
+  }
+}
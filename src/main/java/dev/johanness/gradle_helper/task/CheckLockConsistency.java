@@ -0,0 +1,55 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.LockConsistency;
+import dev.johanness.gradle_helper._internal.LockState;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.SetProperty;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Checks the lockfiles of all projects together, for example after the
+// shards of a sharded update were merged.
+public class CheckLockConsistency extends DefaultTask {
+  private final @NotNull MapProperty<String, File> projectDirectories;
+  private final @NotNull SetProperty<String> dynamicModules;
+
+  @Inject
+  public CheckLockConsistency(@NotNull ObjectFactory objectFactory) {
+    projectDirectories = objectFactory.mapProperty(String.class, File.class);
+    dynamicModules = objectFactory.setProperty(String.class);
+  }
+
+  @Internal
+  public @NotNull MapProperty<String, File> getProjectDirectories() {
+    return projectDirectories;
+  }
+
+  // Modules which are declared with a dynamic version or a version range.
+  @Internal
+  public @NotNull SetProperty<String> getDynamicModules() {
+    return dynamicModules;
+  }
+
+  @TaskAction
+  void run() {
+    Map<String, LockState> lockStates = new TreeMap<>();
+    projectDirectories.get().forEach((path, directory) -> lockStates.put(path, LockState.read(directory.toPath())));
+
+    List<String> inconsistencies = LockConsistency.check(lockStates, dynamicModules.get());
+    inconsistencies.forEach(getLogger()::error);
+    if (!inconsistencies.isEmpty()) {
+      throw new GradleException(
+          "Found " + inconsistencies.size() + " modules which are locked in different versions.");
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.TaskInputRecording;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.util.List;
+
+// Names the inputs which differ between two recordings, for example of a CI
+// build and a local build. These inputs prevent hits in the build cache.
+public class CompareTaskInputs extends DefaultTask {
+  private final @NotNull RegularFileProperty baseline;
+  private final @NotNull RegularFileProperty current;
+
+  @Inject
+  public CompareTaskInputs(@NotNull ObjectFactory objectFactory) {
+    baseline = objectFactory.fileProperty();
+    current = objectFactory.fileProperty();
+  }
+
+  @Internal
+  public @NotNull RegularFileProperty getBaseline() {
+    return baseline;
+  }
+
+  @Option(option = "baseline", description = "Recording to compare against, e.g. from a CI build.")
+  public void setBaseline(@NotNull String path) {
+    baseline.set(resolve(path));
+  }
+
+  @Internal
+  public @NotNull RegularFileProperty getCurrent() {
+    return current;
+  }
+
+  @Option(option = "current", description = "Recording to compare, defaults to the recording of this build.")
+  public void setCurrent(@NotNull String path) {
+    current.set(resolve(path));
+  }
+
+  @TaskAction
+  public void compare() {
+    if (!baseline.isPresent()) {
+      throw new GradleException("Specify the recording to compare against with --baseline.");
+    }
+    File baselineFile = baseline.get().getAsFile();
+    File currentFile = current.get().getAsFile();
+    for (File file : List.of(baselineFile, currentFile)) {
+      if (!file.isFile()) {
+        throw new GradleException("Recording " + file + " does not exist.");
+      }
+    }
+    List<String> differences = TaskInputRecording.diff(
+        TaskInputRecording.read(baselineFile.toPath()),
+        TaskInputRecording.read(currentFile.toPath()));
+    differences.forEach(getLogger()::lifecycle);
+    getLogger().lifecycle("Found {} differences", differences.size());
+  }
+
+  private @NotNull File resolve(@NotNull String path) {
+    // Options are applied while the task is configured.
+    return getProject().file(path);
+  }
+}
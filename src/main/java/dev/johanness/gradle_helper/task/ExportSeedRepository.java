@@ -0,0 +1,150 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.SeedRepository;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.provider.Provider;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputDirectory;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.workers.WorkAction;
+import org.gradle.workers.WorkParameters;
+import org.gradle.workers.WorkQueue;
+import org.gradle.workers.WorkerExecutor;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Copies the files of all locked modules into a repository with Maven layout.
+// Gradle downloads the files while it resolves the provider of getFiles().
+// Copying and checksumming is split into one work item per module.
+public class ExportSeedRepository extends DefaultTask {
+  private final @NotNull WorkerExecutor workerExecutor;
+  private final @NotNull MapProperty<String, File> files;
+  private final @NotNull ConfigurableFileCollection lockfiles;
+  private final @NotNull DirectoryProperty repository;
+
+  @Inject
+  public ExportSeedRepository(@NotNull ObjectFactory objectFactory, @NotNull WorkerExecutor workerExecutor) {
+    this.workerExecutor = workerExecutor;
+    files = objectFactory.mapProperty(String.class, File.class);
+    lockfiles = objectFactory.fileCollection();
+    repository = objectFactory.directoryProperty();
+  }
+
+  // Maps the paths within the repository to the files in Gradle's cache.
+  @Internal
+  public @NotNull MapProperty<String, File> getFiles() {
+    return files;
+  }
+
+  // The files in Gradle's cache are identified by their paths within the repository.
+  @Input
+  public @NotNull Provider<SortedSet<String>> getPaths() {
+    return files.map(files -> new TreeSet<>(files.keySet()));
+  }
+
+  // The locked modules, and therefore the files, change with the lockfiles.
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public @NotNull ConfigurableFileCollection getLockfiles() {
+    return lockfiles;
+  }
+
+  @OutputDirectory
+  public @NotNull DirectoryProperty getRepository() {
+    return repository;
+  }
+
+  @TaskAction
+  void export() {
+    Path repository = this.repository.get().getAsFile().toPath();
+    Map<String, List<Map.Entry<String, File>>> filesByModuleVersion = new TreeMap<>();
+    Map<String, SortedSet<String>> versionsByModule = new TreeMap<>();
+    for (Map.Entry<String, File> file : files.get().entrySet()) {
+      String path = file.getKey();
+      String versionDirectory = path.substring(0, path.lastIndexOf('/'));
+      String moduleDirectory = versionDirectory.substring(0, versionDirectory.lastIndexOf('/'));
+      filesByModuleVersion.computeIfAbsent(versionDirectory, d -> new ArrayList<>()).add(file);
+      versionsByModule.computeIfAbsent(moduleDirectory, d -> new TreeSet<>())
+          .add(versionDirectory.substring(moduleDirectory.length() + 1));
+    }
+
+    WorkQueue queue = workerExecutor.noIsolation();
+    for (List<Map.Entry<String, File>> moduleFiles : filesByModuleVersion.values()) {
+      queue.submit(CopyModule.class, parameters -> {
+        parameters.getRepository().set(repository.toFile());
+        for (Map.Entry<String, File> file : moduleFiles) {
+          parameters.getFiles().put(file.getKey(), file.getValue());
+        }
+      });
+    }
+
+    for (Map.Entry<String, SortedSet<String>> module : versionsByModule.entrySet()) {
+      String moduleDirectory = module.getKey();
+      String group = moduleDirectory.substring(0, moduleDirectory.lastIndexOf('/')).replace('/', '.');
+      String name = moduleDirectory.substring(moduleDirectory.lastIndexOf('/') + 1);
+      Path metadata = repository.resolve(SeedRepository.metadataPath(group, name));
+      write(metadata, SeedRepository.mavenMetadata(group, name, module.getValue()));
+      SeedRepository.writeChecksums(metadata);
+    }
+
+    queue.await();
+    getLogger().lifecycle("Exported {} files of {} modules to {}",
+        files.get().size(), filesByModuleVersion.size(), repository.toUri());
+  }
+
+  private static void write(@NotNull Path file, @NotNull String content) {
+    try {
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public abstract static class CopyModule implements WorkAction<CopyModule.Parameters> {
+    @Override
+    public void execute() {
+      Path repository = getParameters().getRepository().get().getAsFile().toPath();
+      try {
+        for (Map.Entry<String, File> file : getParameters().getFiles().get().entrySet()) {
+          Path target = repository.resolve(file.getKey());
+          Files.createDirectories(target.getParent());
+          Files.copy(file.getValue().toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+          SeedRepository.writeChecksums(target);
+        }
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    public interface Parameters extends WorkParameters {
+      @NotNull DirectoryProperty getRepository();
+
+      @NotNull MapProperty<String, File> getFiles();
+    }
+  }
+}
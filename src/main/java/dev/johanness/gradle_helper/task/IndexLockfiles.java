@@ -0,0 +1,128 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.LockState;
+import dev.johanness.gradle_helper._internal.LockfileIndex;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.FileType;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.work.ChangeType;
+import org.gradle.work.FileChange;
+import org.gradle.work.Incremental;
+import org.gradle.work.InputChanges;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Maintains a binary index of all lockfiles in the build. Only lockfiles
+// which have changed since the last execution are read again.
+public class IndexLockfiles extends DefaultTask {
+  private final @NotNull ConfigurableFileCollection lockfiles;
+  private final @NotNull MapProperty<String, String> projectPaths;
+  private final @NotNull DirectoryProperty rootDirectory;
+  private final @NotNull RegularFileProperty index;
+
+  @Inject
+  public IndexLockfiles(@NotNull ObjectFactory objectFactory) {
+    lockfiles = objectFactory.fileCollection();
+    projectPaths = objectFactory.mapProperty(String.class, String.class);
+    rootDirectory = objectFactory.directoryProperty();
+    index = objectFactory.fileProperty();
+  }
+
+  @Incremental
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public @NotNull ConfigurableFileCollection getLockfiles() {
+    return lockfiles;
+  }
+
+  // Maps the directory of each project, relative to the root directory, to the path of the project.
+  @Input
+  public @NotNull MapProperty<String, String> getProjectPaths() {
+    return projectPaths;
+  }
+
+  @Internal
+  public @NotNull DirectoryProperty getRootDirectory() {
+    return rootDirectory;
+  }
+
+  @OutputFile
+  public @NotNull RegularFileProperty getIndex() {
+    return index;
+  }
+
+  @TaskAction
+  void run(@NotNull InputChanges inputChanges) {
+    Path root = rootDirectory.get().getAsFile().toPath();
+    Path indexFile = index.get().getAsFile().toPath();
+
+    List<LockfileIndex.Entry> entries = new ArrayList<>();
+    List<Path> changedLockfiles = new ArrayList<>();
+    if (inputChanges.isIncremental()) {
+      Set<String> changedPaths = new HashSet<>();
+      for (FileChange change : inputChanges.getFileChanges(lockfiles)) {
+        if (change.getFileType() == FileType.DIRECTORY) {
+          continue;
+        }
+        changedPaths.add(relativePath(root, change.getFile().toPath()));
+        if (change.getChangeType() != ChangeType.REMOVED) {
+          changedLockfiles.add(change.getFile().toPath());
+        }
+      }
+      for (LockfileIndex.Entry entry : LockfileIndex.read(indexFile).entries()) {
+        if (!changedPaths.contains(entry.getLockfile())) {
+          entries.add(entry);
+        }
+      }
+    }
+    else {
+      for (File lockfile : lockfiles) {
+        changedLockfiles.add(lockfile.toPath());
+      }
+    }
+
+    Map<String, String> projectPaths = this.projectPaths.get();
+    for (Path lockfile : changedLockfiles) {
+      String projectPath = projectPaths.get(relativePath(root, LockState.projectDirectoryOf(lockfile)));
+      if (projectPath == null) {
+        continue;
+      }
+      String lockfilePath = relativePath(root, lockfile);
+      LockState lockState = LockState.readFile(lockfile);
+      for (String configuration : lockState.configurations()) {
+        for (String module : lockState.modules(configuration)) {
+          String moduleName = LockState.moduleOf(module);
+          entries.add(new LockfileIndex.Entry(lockfilePath, projectPath, configuration,
+              moduleName, module.substring(Math.min(moduleName.length() + 1, module.length()))));
+        }
+      }
+    }
+
+    LockfileIndex.write(indexFile, entries);
+    getLogger().info("Indexed {} lockfiles with {} entries ({} changed)",
+        lockfiles.getFiles().size(), entries.size(), changedLockfiles.size());
+  }
+
+  public static @NotNull String relativePath(@NotNull Path root, @NotNull Path file) {
+    return root.toAbsolutePath().relativize(file.toAbsolutePath()).toString().replace(File.separatorChar, '/');
+  }
+}
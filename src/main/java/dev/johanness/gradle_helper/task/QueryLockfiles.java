@@ -0,0 +1,109 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.DependencySelector;
+import dev.johanness.gradle_helper._internal.LockfileIndex;
+import dev.johanness.gradle_helper._internal.VersionRange;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Answers queries against the lockfile index. The task only reads the index
+// and does not need the configuration of any other project.
+public class QueryLockfiles extends DefaultTask {
+  private final @NotNull RegularFileProperty index;
+  private final @NotNull Property<String> module;
+  private final @NotNull Property<String> version;
+  private final @NotNull Property<String> projectPath;
+
+  @Inject
+  public QueryLockfiles(@NotNull ObjectFactory objectFactory) {
+    index = objectFactory.fileProperty();
+    module = objectFactory.property(String.class);
+    version = objectFactory.property(String.class);
+    projectPath = objectFactory.property(String.class);
+  }
+
+  @Internal
+  public @NotNull RegularFileProperty getIndex() {
+    return index;
+  }
+
+  @Internal
+  public @NotNull Property<String> getModule() {
+    return module;
+  }
+
+  @Option(option = "module", description = "Lists projects and configurations which lock a module, e.g. 'com.example*:*'.")
+  public void setModule(@NotNull String module) {
+    this.module.set(module);
+  }
+
+  @Internal
+  public @NotNull Property<String> getVersion() {
+    return version;
+  }
+
+  @Option(option = "version", description = "Restricts the result to a version or version range, e.g. '[1.0,2.0)'.")
+  public void setVersion(@NotNull String version) {
+    this.version.set(version);
+  }
+
+  @Internal
+  public @NotNull Property<String> getProjectPath() {
+    return projectPath;
+  }
+
+  @Option(option = "project", description = "Lists the modules locked by a project, e.g. ':app'.")
+  public void setProjectPath(@NotNull String projectPath) {
+    this.projectPath.set(projectPath);
+  }
+
+  @TaskAction
+  void run() {
+    if (!module.isPresent() && !projectPath.isPresent()) {
+      throw new GradleException("Either '--module' or '--project' must be present.");
+    }
+
+    LockfileIndex index = LockfileIndex.read(this.index.get().getAsFile().toPath());
+    List<LockfileIndex.Entry> entries;
+    if (module.isPresent() && module.get().indexOf('*') < 0 && module.get().chars().filter(c -> c == ':').count() == 1) {
+      entries = index.findModule(module.get());
+    }
+    else if (module.isPresent()) {
+      DependencySelector selector = new DependencySelector(List.of(module.get()));
+      entries = index.entries().stream()
+          .filter(entry -> selector.matches(entry.getModule() + ":" + entry.getVersion()))
+          .collect(Collectors.toList());
+    }
+    else {
+      entries = index.entries();
+    }
+    if (version.isPresent()) {
+      VersionRange range = VersionRange.parse(version.get());
+      entries = entries.stream()
+          .filter(entry -> range.contains(entry.getVersion()))
+          .collect(Collectors.toList());
+    }
+    if (projectPath.isPresent()) {
+      entries = entries.stream()
+          .filter(entry -> entry.getProject().equals(projectPath.get()))
+          .collect(Collectors.toList());
+    }
+
+    for (LockfileIndex.Entry entry : entries) {
+      getLogger().lifecycle("{} {} {}:{}",
+          entry.getProject(), entry.getConfiguration(), entry.getModule(), entry.getVersion());
+    }
+    getLogger().lifecycle("Found {} matching lockfile entries", entries.size());
+  }
+}
@@ -1,27 +1,108 @@
 package dev.johanness.gradle_helper.task;
 
+import dev.johanness.gradle_helper._internal.UpdateReport;
+import dev.johanness.gradle_helper.service.DependencyUpdateService;
 import org.gradle.api.DefaultTask;
-import org.gradle.api.GradleException;
-import org.gradle.api.Project;
-import org.gradle.api.invocation.Gradle;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
 import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+import org.jetbrains.annotations.NotNull;
 
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.util.List;
+
+// Aggregates the UpdateProjectDependencies tasks of all projects.
 public class UpdateDependencies extends DefaultTask {
+  private final @NotNull ListProperty<String> dependencies;
+  private final @NotNull Property<DependencyUpdateService> dependencyUpdateService;
+  private final @NotNull DirectoryProperty reportDirectory;
+  private final @NotNull Property<Integer> summarySize;
+  private final @NotNull Property<String> shard;
+  private final @NotNull RegularFileProperty costReport;
+
+  @Inject
+  public UpdateDependencies(@NotNull ObjectFactory objectFactory) {
+    dependencies = objectFactory.listProperty(String.class);
+    dependencyUpdateService = objectFactory.property(DependencyUpdateService.class);
+    reportDirectory = objectFactory.directoryProperty();
+    summarySize = objectFactory.property(Integer.class).convention(10);
+    shard = objectFactory.property(String.class);
+    costReport = objectFactory.fileProperty();
+  }
+
+  @Internal
+  public @NotNull Property<DependencyUpdateService> getDependencyUpdateService() {
+    return dependencyUpdateService;
+  }
+
+  @Internal
+  public @NotNull DirectoryProperty getReportDirectory() {
+    return reportDirectory;
+  }
+
+  @Internal
+  public @NotNull Property<Integer> getSummarySize() {
+    return summarySize;
+  }
+
+  @Internal
+  public @NotNull Property<String> getShard() {
+    return shard;
+  }
+
+  @Option(option = "shard", description = "Updates only one of several subsets of the projects, e.g. '3/8'.")
+  public void setShard(@NotNull String shard) {
+    this.shard.set(shard);
+  }
+
+  // Report of an earlier, complete update, which is used to balance the shards.
+  @Internal
+  public @NotNull RegularFileProperty getCostReport() {
+    return costReport;
+  }
+
+  // The plugin reads the option from the command line when the settings are
+  // evaluated. It is only declared here so that Gradle accepts it.
+  @Internal
+  public @NotNull ListProperty<String> getDependencies() {
+    return dependencies;
+  }
+
+  @Option(option = "dependency", description = "Updates only the locked versions of matching modules, e.g. 'com.example*:*'.")
+  public void setDependencies(@NotNull List<String> dependencies) {
+    this.dependencies.set(dependencies);
+  }
+
   @TaskAction
   void run() {
-    Gradle gradle = getProject().getGradle();
-
-    if (!gradle.getStartParameter().isWriteDependencyLocks()) {
-      throw new GradleException(
-          "Command line flag '--write-locks' must be present.");
+    UpdateReport report = dependencyUpdateService.get().report();
+    if (report.entries().isEmpty()) {
+      setDidWork(false);
+      return;
     }
 
-    for (Project project : gradle.getRootProject().getAllprojects()) {
-      project.getConfigurations().all(configuration -> {
-        if (configuration.isCanBeResolved()) {
-          configuration.resolve();
-        }
-      });
+    Path reportDirectory = this.reportDirectory.get().getAsFile().toPath();
+    report.writeJson(reportDirectory.resolve("update-dependencies.json"));
+    report.writeHtml(reportDirectory.resolve("update-dependencies.html"));
+
+    getLogger().lifecycle("Slowest configurations:");
+    for (UpdateReport.Entry entry : report.slowest(summarySize.get())) {
+      getLogger().lifecycle("  {} {} ms ({} components, {} lockfile entries)",
+          entry.getProjectPath() + (entry.getProjectPath().endsWith(":") ? "" : ":") + entry.getConfiguration(),
+          UpdateReport.millis(entry.getResolutionTime()), entry.getComponents(), entry.getLockEntries());
+    }
+    long deduplicated = dependencyUpdateService.get().deduplicated();
+    if (deduplicated > 0) {
+      int configurations = report.entries().size();
+      getLogger().lifecycle("Took the versions of {} of {} configurations ({}%) from equivalent configurations",
+          deduplicated, configurations, Math.round(100.0 * deduplicated / configurations));
     }
+    getLogger().lifecycle("See the full report at {}", reportDirectory.resolve("update-dependencies.html").toUri());
   }
 }
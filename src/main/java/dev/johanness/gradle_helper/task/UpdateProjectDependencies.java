@@ -0,0 +1,160 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.LockState;
+import dev.johanness.gradle_helper._internal.LockedConfiguration;
+import dev.johanness.gradle_helper._internal.UpdateState;
+import dev.johanness.gradle_helper.service.DependencyUpdateService;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.ListProperty;
+import org.gradle.api.provider.Property;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.TaskAction;
+import org.gradle.api.tasks.options.Option;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.inject.Inject;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// The task does not access the project at execution time. The configurations
+// are resolved by work which the plugin hands to the task, so that nothing is
+// resolved before the task runs, and nothing if the lockfiles are up to date.
+// The work needs the configured project, and is not stored in the configuration
+// cache. When Gradle reuses an entry, the task can only confirm that the
+// lockfiles are up to date, using the fingerprint which is stored in the entry.
+public class UpdateProjectDependencies extends DefaultTask {
+  private final @NotNull ListProperty<String> dependencies;
+  private final @NotNull Property<DependencyUpdateService> dependencyUpdateService;
+  private final @NotNull Property<String> projectPath;
+  private final @NotNull Property<Boolean> writeDependencyLocks;
+  private final @NotNull Property<Boolean> incremental;
+  private final @NotNull Property<Duration> dynamicVersionsExpireAfter;
+  private final @NotNull DirectoryProperty projectDirectory;
+  private final @NotNull RegularFileProperty stateFile;
+  private final @NotNull ListProperty<String> configurationNames;
+  private final @NotNull Property<String> fingerprint;
+  private transient @Nullable Function<DependencyUpdateService, List<LockedConfiguration>> update;
+
+  @Inject
+  public UpdateProjectDependencies(@NotNull ObjectFactory objectFactory) {
+    dependencies = objectFactory.listProperty(String.class);
+    dependencyUpdateService = objectFactory.property(DependencyUpdateService.class);
+    projectPath = objectFactory.property(String.class);
+    writeDependencyLocks = objectFactory.property(Boolean.class);
+    incremental = objectFactory.property(Boolean.class).convention(false);
+    dynamicVersionsExpireAfter = objectFactory.property(Duration.class);
+    projectDirectory = objectFactory.directoryProperty();
+    stateFile = objectFactory.fileProperty();
+    configurationNames = objectFactory.listProperty(String.class);
+    fingerprint = objectFactory.property(String.class);
+  }
+
+  @Internal
+  public @NotNull Property<DependencyUpdateService> getDependencyUpdateService() {
+    return dependencyUpdateService;
+  }
+
+  @Internal
+  public @NotNull Property<String> getProjectPath() {
+    return projectPath;
+  }
+
+  @Internal
+  public @NotNull Property<Boolean> getWriteDependencyLocks() {
+    return writeDependencyLocks;
+  }
+
+  @Internal
+  public @NotNull Property<Boolean> getIncremental() {
+    return incremental;
+  }
+
+  @Internal
+  public @NotNull Property<Duration> getDynamicVersionsExpireAfter() {
+    return dynamicVersionsExpireAfter;
+  }
+
+  @Internal
+  public @NotNull DirectoryProperty getProjectDirectory() {
+    return projectDirectory;
+  }
+
+  @Internal
+  public @NotNull RegularFileProperty getStateFile() {
+    return stateFile;
+  }
+
+  @Internal
+  public @NotNull ListProperty<String> getConfigurationNames() {
+    return configurationNames;
+  }
+
+  @Internal
+  public @NotNull Property<String> getFingerprint() {
+    return fingerprint;
+  }
+
+  // Returns the locked configurations. The function is only called when the task runs.
+  public void resolveConfigurationsWith(@NotNull Function<DependencyUpdateService, List<LockedConfiguration>> update) {
+    this.update = update;
+  }
+
+  // The plugin reads the option from the command line when the settings are
+  // evaluated. It is only declared here so that Gradle accepts it.
+  @Internal
+  public @NotNull ListProperty<String> getDependencies() {
+    return dependencies;
+  }
+
+  @Option(option = "dependency", description = "Updates only the locked versions of matching modules, e.g. 'com.example*:*'.")
+  public void setDependencies(@NotNull List<String> dependencies) {
+    this.dependencies.set(dependencies);
+  }
+
+  @TaskAction
+  void run() {
+    if (!writeDependencyLocks.get()) {
+      throw new GradleException(
+          "Command line flag '--write-locks' must be present.");
+    }
+
+    Path stateFile = this.stateFile.get().getAsFile().toPath();
+    Instant now = Instant.now();
+    LockState lockState = LockState.read(projectDirectory.get().getAsFile().toPath())
+        .restrictTo(configurationNames.get());
+
+    // Without incremental updates, only lockfiles without dynamic versions
+    // are known to be up to date, and only when there is no work.
+    Duration expireAfter = incremental.get() ? dynamicVersionsExpireAfter.get() : Duration.ZERO;
+    UpdateState previousState = UpdateState.read(stateFile);
+    if ((incremental.get() || update == null) && previousState != null &&
+        previousState.isUpToDate(fingerprint.get(), lockState, expireAfter, now)) {
+      getLogger().info("Dependencies of {} have not changed since the last update", getPath());
+      setDidWork(false);
+      return;
+    }
+    if (update == null) {
+      throw new GradleException(
+          "The lockfiles of project '" + projectPath.get() + "' cannot be updated from a configuration cache " +
+          "entry, because Gradle did not configure the project. Run the task with '--no-configuration-cache'.");
+    }
+
+    DependencyUpdateService service = dependencyUpdateService.get();
+    List<LockedConfiguration> lockedConfigurations = update.apply(service);
+    service.record(projectPath.get(), lockedConfigurations);
+    Map<String, List<String>> resolvedModules = lockedConfigurations.stream()
+        .collect(Collectors.toMap(LockedConfiguration::getName, c -> List.copyOf(c.getModules())));
+    boolean dynamic = lockedConfigurations.stream().anyMatch(LockedConfiguration::isDynamic);
+    new UpdateState(fingerprint.get(), LockState.of(resolvedModules).fingerprint(), now, dynamic).write(stateFile);
+  }
+}
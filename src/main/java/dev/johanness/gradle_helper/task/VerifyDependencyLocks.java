@@ -0,0 +1,182 @@
+package dev.johanness.gradle_helper.task;
+
+import dev.johanness.gradle_helper._internal.DependencyFingerprint;
+import dev.johanness.gradle_helper._internal.LockState;
+import dev.johanness.gradle_helper._internal.LockedConfiguration;
+import org.gradle.api.DefaultTask;
+import org.gradle.api.GradleException;
+import org.gradle.api.artifacts.Configuration;
+import org.gradle.api.artifacts.result.DependencyResult;
+import org.gradle.api.artifacts.result.UnresolvedDependencyResult;
+import org.gradle.api.file.ConfigurableFileCollection;
+import org.gradle.api.file.DirectoryProperty;
+import org.gradle.api.file.RegularFileProperty;
+import org.gradle.api.model.ObjectFactory;
+import org.gradle.api.provider.MapProperty;
+import org.gradle.api.tasks.CacheableTask;
+import org.gradle.api.tasks.Input;
+import org.gradle.api.tasks.InputFiles;
+import org.gradle.api.tasks.Internal;
+import org.gradle.api.tasks.OutputFile;
+import org.gradle.api.tasks.PathSensitive;
+import org.gradle.api.tasks.PathSensitivity;
+import org.gradle.api.tasks.TaskAction;
+import org.jetbrains.annotations.NotNull;
+
+import javax.inject.Inject;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+// Gradle skips the task when neither the declared dependencies nor the
+// lockfiles have changed. Otherwise, the task only resolves the
+// configurations which have changed since the last successful verification.
+@CacheableTask
+public class VerifyDependencyLocks extends DefaultTask {
+  private static final @NotNull String LOCK_OUT_OF_DATE_EXCEPTION = "LockOutOfDateException";
+
+  private final @NotNull MapProperty<String, String> configurationFingerprints;
+  private final @NotNull ConfigurableFileCollection lockfiles;
+  private final @NotNull DirectoryProperty projectDirectory;
+  private final @NotNull RegularFileProperty verifiedState;
+  private final @NotNull MapProperty<String, Configuration> configurations;
+
+  @Inject
+  public VerifyDependencyLocks(@NotNull ObjectFactory objectFactory) {
+    configurationFingerprints = objectFactory.mapProperty(String.class, String.class);
+    lockfiles = objectFactory.fileCollection();
+    projectDirectory = objectFactory.directoryProperty();
+    verifiedState = objectFactory.fileProperty();
+    configurations = objectFactory.mapProperty(String.class, Configuration.class);
+    // The fingerprints are derived from the configurations, so both must see the same list.
+    configurations.finalizeValueOnRead();
+  }
+
+  @Input
+  public @NotNull MapProperty<String, String> getConfigurationFingerprints() {
+    return configurationFingerprints;
+  }
+
+  @InputFiles
+  @PathSensitive(PathSensitivity.RELATIVE)
+  public @NotNull ConfigurableFileCollection getLockfiles() {
+    return lockfiles;
+  }
+
+  @Internal
+  public @NotNull DirectoryProperty getProjectDirectory() {
+    return projectDirectory;
+  }
+
+  @OutputFile
+  public @NotNull RegularFileProperty getVerifiedState() {
+    return verifiedState;
+  }
+
+  // Only the configurations which have to be checked are resolved.
+  @Internal
+  public @NotNull MapProperty<String, Configuration> getConfigurations() {
+    return configurations;
+  }
+
+  @TaskAction
+  void run() {
+    Path verifiedStateFile = verifiedState.get().getAsFile().toPath();
+    Properties previousState = readProperties(verifiedStateFile);
+    Properties newState = new Properties();
+    LockState lockState = LockState.read(projectDirectory.get().getAsFile().toPath());
+
+    Map<String, Configuration> configurations = this.configurations.get();
+    int checked = 0;
+    for (Map.Entry<String, String> entry : configurationFingerprints.get().entrySet()) {
+      String configuration = entry.getKey();
+      SortedSet<String> lockedModules = lockState.modules(configuration);
+      String key = DependencyFingerprint.withLockState(entry.getValue(), lockState.restrictTo(Set.of(configuration)));
+      if (!key.equals(previousState.getProperty(configuration))) {
+        checked++;
+        verify(configurations.get(configuration), lockedModules);
+      }
+      newState.setProperty(configuration, key);
+    }
+
+    getLogger().info("Verified {} of {} configurations", checked, configurationFingerprints.get().size());
+    writeProperties(verifiedStateFile, newState);
+  }
+
+  private static void verify(@NotNull Configuration configuration, @NotNull SortedSet<String> lockedModules) {
+    SortedSet<String> resolvedModules;
+    try {
+      resolvedModules = LockedConfiguration.resolveGraph(configuration).getModules();
+    }
+    catch (RuntimeException e) {
+      throw resolutionFailure(configuration, e);
+    }
+    // Depending on the Gradle version, failures may also be recorded in the graph instead of being thrown.
+    for (DependencyResult dependency : configuration.getIncoming().getResolutionResult().getAllDependencies()) {
+      if (dependency instanceof UnresolvedDependencyResult) {
+        throw resolutionFailure(configuration, ((UnresolvedDependencyResult) dependency).getFailure());
+      }
+    }
+    if (!resolvedModules.equals(lockedModules)) {
+      SortedSet<String> missing = new TreeSet<>(resolvedModules);
+      missing.removeAll(lockedModules);
+      SortedSet<String> obsolete = new TreeSet<>(lockedModules);
+      obsolete.removeAll(resolvedModules);
+      throw new GradleException("Lock state of configuration '" + configuration.getName() + "' is out of date. " +
+                                "Not locked: " + missing + ", no longer resolved: " + obsolete);
+    }
+  }
+
+  // Other failures, like unreachable repositories, say nothing about the lock state.
+  private static @NotNull GradleException resolutionFailure(@NotNull Configuration configuration, @NotNull Throwable failure) {
+    if (isLockOutOfDate(failure)) {
+      return new GradleException("Lock state of configuration '" + configuration.getName() + "' is out of date.", failure);
+    }
+    return new GradleException("Cannot resolve configuration '" + configuration.getName() + "'.", failure);
+  }
+
+  // Gradle reports a strict lock conflict with an internal exception type,
+  // wrapped into the resolution failure.
+  private static boolean isLockOutOfDate(@NotNull Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause.getClass().getSimpleName().equals(LOCK_OUT_OF_DATE_EXCEPTION)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static @NotNull Properties readProperties(@NotNull Path file) {
+    Properties properties = new Properties();
+    if (Files.isRegularFile(file)) {
+      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        properties.load(reader);
+      }
+      catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return properties;
+  }
+
+  private static void writeProperties(@NotNull Path file, @NotNull Properties properties) {
+    try {
+      Files.createDirectories(file.getParent());
+      try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+        properties.store(writer, null);
+      }
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package dev.johanness.gradle_helper;
+
+import dev.johanness._testutils.SyntheticBuildGenerator;
+import groovy.json.JsonOutput;
+import org.gradle.testkit.runner.GradleRunner;
+import org.intellij.lang.annotations.Language;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+final class ConfigurationTimePerformanceTest {
+  private static final int WARMUP_RUNS = 2;
+  private static final int MEASURED_RUNS = 5;
+  private static final @NotNull String TIMINGS_FILE = "timings.properties";
+  private static final @NotNull String REPORT_PROPERTY = "performanceTest.report";
+
+  // Measures from the start of the build, before the settings script applies the plugin.
+  @Language("groovy")
+  private static final @NotNull String TIMING_INIT_SCRIPT =
+      "def start = System.nanoTime()\n" +
+      "def settingsEvaluated = 0L\n" +
+      "gradle.settingsEvaluated {\n" +
+      "  settingsEvaluated = System.nanoTime()\n" +
+      "}\n" +
+      "gradle.projectsEvaluated {\n" +
+      "  def end = System.nanoTime()\n" +
+      "  new File(gradle.rootProject.projectDir, '" + TIMINGS_FILE + "').text =\n" +
+      "      \"settingsEvaluation=${settingsEvaluated - start}\\n\" +\n" +
+      "      \"configuration=${end - settingsEvaluated}\\n\"\n" +
+      "}\n";
+
+  private static final @NotNull List<Map<String, Object>> RESULTS = new ArrayList<>();
+
+  @ParameterizedTest
+  @CsvSource({
+      "10, 5, 10",
+      "100, 20, 100",
+      "400, 20, 1000",
+  })
+  void configuration_time_overhead(int projects, int configurations, int whitelistEntries, @TempDir Path tempDir)
+      throws IOException
+  {
+    Map<String, Long> withoutPlugin = measure(tempDir.resolve("without-plugin"),
+        projects, configurations, whitelistEntries, false);
+    Map<String, Long> withPlugin = measure(tempDir.resolve("with-plugin"),
+        projects, configurations, whitelistEntries, true);
+
+    Map<String, Object> result = new LinkedHashMap<>();
+    result.put("projects", projects);
+    result.put("configurationsPerProject", configurations);
+    result.put("whitelistEntries", whitelistEntries);
+    result.put("withoutPluginNanos", withoutPlugin);
+    result.put("withPluginNanos", withPlugin);
+    Map<String, Long> overhead = new LinkedHashMap<>();
+    withPlugin.forEach((phase, nanos) -> overhead.put(phase, nanos - withoutPlugin.get(phase)));
+    result.put("overheadNanos", overhead);
+    writeReport(result);
+  }
+
+  private static @NotNull Map<String, Long> measure(
+      @NotNull Path projectDir,
+      int projects,
+      int configurations,
+      int whitelistEntries,
+      boolean applyPlugin)
+      throws IOException
+  {
+    SyntheticBuildGenerator.generateSyntheticBuild(projectDir)
+        .projects(projects)
+        .configurationsPerProject(configurations)
+        .whitelistEntries(whitelistEntries)
+        .applyPlugin(applyPlugin)
+        .generate();
+    Path initScript = projectDir.resolve("timing.gradle");
+    Files.writeString(initScript, TIMING_INIT_SCRIPT, StandardCharsets.UTF_8);
+
+    GradleRunner runner = GradleRunner.create()
+        .withArguments("help", "--init-script", initScript.toString())
+        .withProjectDir(projectDir.toFile())
+        .withPluginClasspath();
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      runner.build();
+    }
+
+    Map<String, List<Long>> samples = new LinkedHashMap<>();
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      runner.build();
+      Properties timings = new Properties();
+      try (BufferedReader reader = Files.newBufferedReader(projectDir.resolve(TIMINGS_FILE), StandardCharsets.UTF_8)) {
+        timings.load(reader);
+      }
+      for (String phase : timings.stringPropertyNames()) {
+        samples.computeIfAbsent(phase, p -> new ArrayList<>()).add(Long.parseLong(timings.getProperty(phase)));
+      }
+    }
+
+    Map<String, Long> medians = new LinkedHashMap<>();
+    samples.forEach((phase, values) -> {
+      values.sort(null);
+      medians.put(phase, values.get(values.size() / 2));
+    });
+    return medians;
+  }
+
+  private static synchronized void writeReport(@NotNull Map<String, Object> result) throws IOException {
+    RESULTS.add(result);
+    Path report = Path.of(System.getProperty(REPORT_PROPERTY, "build/reports/performance/configuration-time.json"));
+    Files.createDirectories(report.getParent());
+    Files.writeString(report, JsonOutput.prettyPrint(JsonOutput.toJson(Map.of("scenarios", RESULTS))),
+        StandardCharsets.UTF_8);
+  }
+}
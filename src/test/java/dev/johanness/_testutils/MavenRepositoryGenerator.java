@@ -1,29 +1,46 @@
 package dev.johanness._testutils;
 
-import groovy.json.StringEscapeUtils;
-import org.gradle.testkit.runner.GradleRunner;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+// Writes the files which 'maven-publish' would publish for an empty
+// 'java-library' project directly to disk. The files of a module only
+// depend on its coordinates, so they are generated once and shared by all
+// tests which use the same module.
 public final class MavenRepositoryGenerator {
-  private static final @NotNull String GRADLE_PROJECT_DIR = ".gradle";
+  private static final @NotNull Map<String, Map<String, byte[]>> MODULE_CACHE = new ConcurrentHashMap<>();
+  private static final @NotNull Pattern VERSION = Pattern.compile("<version>([^<]*)</version>");
+  private static final @NotNull String LAST_UPDATED = "20200101000000";
+  private static final long TIMESTAMP = 315532800000L; // 1980-01-01, the earliest time supported by ZIP files.
+  private static final @NotNull List<String> CHECKSUMS = List.of("md5", "sha1", "sha256", "sha512");
 
-  private final @NotNull URI repositoryUri;
-  private final @NotNull Path projectRoot;
-  private final @NotNull ProjectGenerator projectGenerator;
-  private final @NotNull List<String> projectNames = new ArrayList<>();
+  private final @NotNull Path repositoryRoot;
+  private final @NotNull Map<String, Set<String>> versions = new LinkedHashMap<>();
 
   private MavenRepositoryGenerator(@NotNull Path repositoryRoot) {
-    repositoryUri = repositoryRoot.toUri();
-    projectRoot = repositoryRoot.resolve(GRADLE_PROJECT_DIR);
-    projectGenerator = ProjectGenerator.generateGradleProject(projectRoot);
+    this.repositoryRoot = repositoryRoot;
   }
 
   @Contract(value = "_ -> new", pure = true)
@@ -36,54 +53,197 @@ private MavenRepositoryGenerator(@NotNull Path repositoryRoot) {
       @NotNull String group,
       @NotNull String module,
       @NotNull String version)
-      throws IOException
   {
-    String projectName = projectName(group, module, version);
-    projectNames.add(projectName);
-    projectGenerator.subProject(projectName,
-        "apply plugin: 'java-library'\n" +
-        "apply plugin: 'maven-publish'\n" +
-        "\n" +
-        "publishing {\n" +
-        "  repositories {\n" +
-        "    maven {\n" +
-        "      url = '" + StringEscapeUtils.escapeJava(repositoryUri.toString()) + "'\n" +
-        "    }\n" +
-        "  }\n" +
-        "  publications {\n" +
-        "    maven(MavenPublication) {\n" +
-        "      groupId = '" + group + "'\n" +
-        "      artifactId = '" + module + "'\n" +
-        "      version = '" + version + "'\n" +
-        "      from components.java\n" +
-        "    }\n" +
-        "  }\n" +
-        "}\n");
+    versions.computeIfAbsent(group + ":" + module, key -> new LinkedHashSet<>()).add(version);
     return this;
   }
 
   public @NotNull URI generate() throws IOException {
-    projectGenerator.settings(
-        "rootProject.name = 'maven-repo'\n" +
-        projectNames.stream()
-            .map(name -> "include '" + name + "'\n")
-            .collect(Collectors.joining()));
-
-    GradleRunner.create()
-        .withArguments("publishAllPublicationsToMavenRepository")
-        .withProjectDir(projectRoot.toFile())
-        .build();
-
-    return repositoryUri;
+    for (Map.Entry<String, Set<String>> entry : versions.entrySet()) {
+      String[] parts = entry.getKey().split(":");
+      Path moduleDir = repositoryRoot.resolve(parts[0].replace('.', '/')).resolve(parts[1]);
+      for (String version : entry.getValue()) {
+        Map<String, byte[]> files = MODULE_CACHE.computeIfAbsent(
+            entry.getKey() + ":" + version,
+            key -> moduleFiles(parts[0], parts[1], version));
+        Path versionDir = moduleDir.resolve(version);
+        Files.createDirectories(versionDir);
+        for (Map.Entry<String, byte[]> file : files.entrySet()) {
+          Files.write(versionDir.resolve(file.getKey()), file.getValue());
+        }
+      }
+
+      // Like 'maven-publish', keep the versions which have been published before.
+      Path metadataFile = moduleDir.resolve("maven-metadata.xml");
+      Set<String> allVersions = new LinkedHashSet<>();
+      if (Files.exists(metadataFile)) {
+        Matcher matcher = VERSION.matcher(Files.readString(metadataFile, StandardCharsets.UTF_8));
+        while (matcher.find()) {
+          allVersions.add(matcher.group(1));
+        }
+      }
+      allVersions.addAll(entry.getValue());
+      byte[] metadata = mavenMetadata(parts[0], parts[1], allVersions).getBytes(StandardCharsets.UTF_8);
+      Files.write(metadataFile, metadata);
+      for (String algorithm : CHECKSUMS) {
+        Files.writeString(moduleDir.resolve("maven-metadata.xml." + algorithm),
+            checksum(metadata, algorithm), StandardCharsets.UTF_8);
+      }
+    }
+    return repositoryRoot.toUri();
+  }
+
+  private static @NotNull Map<String, byte[]> moduleFiles(
+      @NotNull String group,
+      @NotNull String module,
+      @NotNull String version)
+  {
+    String baseName = module + "-" + version;
+    byte[] jar = jar();
+    byte[] pom = pom(group, module, version).getBytes(StandardCharsets.UTF_8);
+    byte[] metadata = gradleMetadata(group, module, version, baseName + ".jar", jar).getBytes(StandardCharsets.UTF_8);
+
+    Map<String, byte[]> files = new LinkedHashMap<>();
+    putWithChecksums(files, baseName + ".jar", jar);
+    putWithChecksums(files, baseName + ".pom", pom);
+    putWithChecksums(files, baseName + ".module", metadata);
+    return files;
+  }
+
+  private static void putWithChecksums(
+      @NotNull Map<String, byte[]> files,
+      @NotNull String name,
+      byte @NotNull [] content)
+  {
+    files.put(name, content);
+    for (String algorithm : CHECKSUMS) {
+      files.put(name + "." + algorithm, checksum(content, algorithm).getBytes(StandardCharsets.UTF_8));
+    }
   }
 
-  private static @NotNull String projectName(
+  private static byte @NotNull [] jar() {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (JarOutputStream out = new JarOutputStream(bytes)) {
+      JarEntry entry = new JarEntry("META-INF/MANIFEST.MF");
+      entry.setTime(TIMESTAMP);
+      out.putNextEntry(entry);
+      manifest.write(out);
+      out.closeEntry();
+    }
+    catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  private static @NotNull String pom(
       @NotNull String group,
       @NotNull String module,
       @NotNull String version)
   {
-    return group.replace('.', '_') +
-           "__" + module +
-           "__" + version.replaceAll("[-._+]", "_");
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+           "<project xmlns=\"http://maven.apache.org/POM/4.0.0\" " +
+           "xsi:schemaLocation=\"http://maven.apache.org/POM/4.0.0 http://maven.apache.org/xsd/maven-4.0.0.xsd\" " +
+           "xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\">\n" +
+           "  <!-- do_not_remove: published-with-gradle-metadata -->\n" +
+           "  <modelVersion>4.0.0</modelVersion>\n" +
+           "  <groupId>" + group + "</groupId>\n" +
+           "  <artifactId>" + module + "</artifactId>\n" +
+           "  <version>" + version + "</version>\n" +
+           "</project>\n";
+  }
+
+  private static @NotNull String gradleMetadata(
+      @NotNull String group,
+      @NotNull String module,
+      @NotNull String version,
+      @NotNull String jarName,
+      byte @NotNull [] jar)
+  {
+    return "{\n" +
+           "  \"formatVersion\": \"1.1\",\n" +
+           "  \"component\": {\n" +
+           "    \"group\": \"" + group + "\",\n" +
+           "    \"module\": \"" + module + "\",\n" +
+           "    \"version\": \"" + version + "\",\n" +
+           "    \"attributes\": {\n" +
+           "      \"org.gradle.status\": \"release\"\n" +
+           "    }\n" +
+           "  },\n" +
+           "  \"variants\": [\n" +
+           variant("apiElements", "java-api", jarName, jar) + ",\n" +
+           variant("runtimeElements", "java-runtime", jarName, jar) + "\n" +
+           "  ]\n" +
+           "}\n";
+  }
+
+  private static @NotNull String variant(
+      @NotNull String name,
+      @NotNull String usage,
+      @NotNull String jarName,
+      byte @NotNull [] jar)
+  {
+    return "    {\n" +
+           "      \"name\": \"" + name + "\",\n" +
+           "      \"attributes\": {\n" +
+           "        \"org.gradle.category\": \"library\",\n" +
+           "        \"org.gradle.dependency.bundling\": \"external\",\n" +
+           "        \"org.gradle.libraryelements\": \"jar\",\n" +
+           "        \"org.gradle.usage\": \"" + usage + "\"\n" +
+           "      },\n" +
+           "      \"files\": [\n" +
+           "        {\n" +
+           "          \"name\": \"" + jarName + "\",\n" +
+           "          \"url\": \"" + jarName + "\",\n" +
+           "          \"size\": " + jar.length + ",\n" +
+           "          \"sha512\": \"" + checksum(jar, "sha512") + "\",\n" +
+           "          \"sha256\": \"" + checksum(jar, "sha256") + "\",\n" +
+           "          \"sha1\": \"" + checksum(jar, "sha1") + "\",\n" +
+           "          \"md5\": \"" + checksum(jar, "md5") + "\"\n" +
+           "        }\n" +
+           "      ]\n" +
+           "    }";
+  }
+
+  private static @NotNull String mavenMetadata(
+      @NotNull String group,
+      @NotNull String module,
+      @NotNull Set<String> versions)
+  {
+    String latest = null;
+    StringBuilder versionList = new StringBuilder();
+    for (String version : versions) {
+      versionList.append("      <version>").append(version).append("</version>\n");
+      latest = version;
+    }
+    return "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+           "<metadata>\n" +
+           "  <groupId>" + group + "</groupId>\n" +
+           "  <artifactId>" + module + "</artifactId>\n" +
+           "  <versioning>\n" +
+           "    <latest>" + latest + "</latest>\n" +
+           "    <release>" + latest + "</release>\n" +
+           "    <versions>\n" +
+           versionList +
+           "    </versions>\n" +
+           "    <lastUpdated>" + LAST_UPDATED + "</lastUpdated>\n" +
+           "  </versioning>\n" +
+           "</metadata>\n";
+  }
+
+  private static @NotNull String checksum(byte @NotNull [] content, @NotNull String algorithm) {
+    String name = algorithm.startsWith("sha") ? "SHA-" + algorithm.substring(3) : algorithm.toUpperCase();
+    try {
+      StringBuilder hex = new StringBuilder();
+      for (byte b : MessageDigest.getInstance(name).digest(content)) {
+        hex.append(Character.forDigit((b >>> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return hex.toString();
+    }
+    catch (NoSuchAlgorithmException e) {
+      throw new AssertionError(name + " must be supported by every Java platform", e);
+    }
   }
 }
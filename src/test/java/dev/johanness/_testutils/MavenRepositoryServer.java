@@ -0,0 +1,66 @@
+package dev.johanness._testutils;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+// Serves a directory over HTTP. Unlike file repositories, Gradle caches
+// the metadata of HTTP repositories between builds.
+public final class MavenRepositoryServer implements AutoCloseable {
+  private final @NotNull Path repositoryRoot;
+  private final @NotNull HttpServer server;
+
+  private MavenRepositoryServer(@NotNull Path repositoryRoot) throws IOException {
+    this.repositoryRoot = repositoryRoot.toAbsolutePath().normalize();
+    server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+    server.createContext("/", this::handle);
+    server.start();
+  }
+
+  @Contract("_ -> new")
+  public static @NotNull MavenRepositoryServer serveMavenRepository(@NotNull Path repositoryRoot) throws IOException {
+    return new MavenRepositoryServer(repositoryRoot);
+  }
+
+  public @NotNull URI getUri() {
+    InetSocketAddress address = server.getAddress();
+    return URI.create("http://" + address.getHostString() + ":" + address.getPort() + "/");
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+  }
+
+  private void handle(@NotNull HttpExchange exchange) throws IOException {
+    try {
+      Path file = repositoryRoot.resolve(exchange.getRequestURI().getPath().substring(1)).normalize();
+      if (!file.startsWith(repositoryRoot) || !Files.isRegularFile(file)) {
+        exchange.sendResponseHeaders(404, -1);
+        return;
+      }
+      byte[] content = Files.readAllBytes(file);
+      if (exchange.getRequestMethod().equals("HEAD")) {
+        exchange.getResponseHeaders().set("Content-Length", String.valueOf(content.length));
+        exchange.sendResponseHeaders(200, -1);
+        return;
+      }
+      exchange.sendResponseHeaders(200, content.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(content);
+      }
+    }
+    finally {
+      exchange.close();
+    }
+  }
+}
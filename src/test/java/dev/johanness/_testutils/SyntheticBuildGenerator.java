@@ -0,0 +1,88 @@
+package dev.johanness._testutils;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public final class SyntheticBuildGenerator {
+  private final @NotNull ProjectGenerator projectGenerator;
+  private int projects = 1;
+  private int configurations = 0;
+  private int whitelistEntries = 0;
+  private boolean applyPlugin = true;
+
+  private SyntheticBuildGenerator(@NotNull Path projectRoot) {
+    projectGenerator = ProjectGenerator.generateGradleProject(projectRoot);
+  }
+
+  @Contract(value = "_ -> new", pure = true)
+  public static @NotNull SyntheticBuildGenerator generateSyntheticBuild(@NotNull Path projectRoot) {
+    return new SyntheticBuildGenerator(projectRoot);
+  }
+
+  @Contract("_ -> this")
+  public @NotNull SyntheticBuildGenerator projects(int projects) {
+    this.projects = projects;
+    return this;
+  }
+
+  @Contract("_ -> this")
+  public @NotNull SyntheticBuildGenerator configurationsPerProject(int configurations) {
+    this.configurations = configurations;
+    return this;
+  }
+
+  @Contract("_ -> this")
+  public @NotNull SyntheticBuildGenerator whitelistEntries(int whitelistEntries) {
+    this.whitelistEntries = whitelistEntries;
+    return this;
+  }
+
+  @Contract("_ -> this")
+  public @NotNull SyntheticBuildGenerator applyPlugin(boolean applyPlugin) {
+    this.applyPlugin = applyPlugin;
+    return this;
+  }
+
+  public void generate() throws IOException {
+    StringBuilder settings = new StringBuilder();
+    if (applyPlugin) {
+      settings.append(
+          "plugins {\n" +
+          "  id 'dev.johanness.gradle-helper'\n" +
+          "}\n" +
+          "\n" +
+          "gradleHelper {\n" +
+          "  useVersionRangesWithDependencyLocking()\n" +
+          "  dependencyResolution {\n");
+      for (int i = 0; i < whitelistEntries; i++) {
+        settings.append("    whitelist 'com.example.group").append(i).append(":module*:*-dev'\n");
+      }
+      settings.append(
+          "  }\n" +
+          "}\n");
+    }
+    settings.append("\n").append("rootProject.name = 'synthetic'\n");
+    for (int i = 0; i < projects; i++) {
+      settings.append("include 'project").append(i).append("'\n");
+    }
+    projectGenerator.settings(settings.toString());
+
+    StringBuilder project = new StringBuilder(
+        "apply plugin: 'java-library'\n" +
+        "\n" +
+        "configurations {\n");
+    for (int i = 0; i < configurations; i++) {
+      project.append("  custom").append(i).append(" {\n")
+          .append("    extendsFrom configurations.implementation\n")
+          .append("  }\n");
+    }
+    project.append("}\n");
+    projectGenerator.rootProject("");
+    for (int i = 0; i < projects; i++) {
+      projectGenerator.subProject("project" + i, project.toString());
+    }
+  }
+}
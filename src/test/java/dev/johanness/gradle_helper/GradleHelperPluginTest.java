@@ -1,9 +1,12 @@
 package dev.johanness.gradle_helper;
 
 import dev.johanness._testutils.MavenRepositoryGenerator;
+import dev.johanness._testutils.MavenRepositoryServer;
 import dev.johanness._testutils.ProjectGenerator;
 import groovy.json.StringEscapeUtils;
+import org.gradle.testkit.runner.BuildResult;
 import org.gradle.testkit.runner.GradleRunner;
+import org.gradle.testkit.runner.TaskOutcome;
 import org.intellij.lang.annotations.Language;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Assertions;
@@ -15,8 +18,12 @@
 
 import java.io.IOException;
 import java.net.URI;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
 
 final class GradleHelperPluginTest {
   @Nested
@@ -327,6 +334,42 @@ void accepts_whitelisted_version(@TempDir Path tempDir) throws IOException {
           .withDebug(true)
           .build();
     }
+
+    @Test
+    void reports_unused_whitelist_entries(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0-dev")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyResolution {\n" +
+              "    rejectPreReleases = true\n" +
+              "    statistics = true\n" +
+              "    whitelist 'group:module:*-dev'\n" +
+              "    whitelist 'group:unused:*'\n" +
+              "  }\n" +
+              "}\n")
+          .rootProject(
+              projectRequestingModule(mavenRepository, "group:module:1.0-dev"));
+
+      BuildResult result = GradleRunner.create()
+          .withArguments("resolve")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+      Assertions.assertTrue(result.getOutput().contains("Whitelist entry 'group:unused:*' was never used"),
+          "Unused whitelist entry must be reported");
+      Assertions.assertFalse(result.getOutput().contains("Whitelist entry 'group:module:*-dev' was never used"),
+          "Used whitelist entry must not be reported");
+    }
   }
 
   @Nested
@@ -433,6 +476,1098 @@ void updates_dependencies_for_all_projects_when_task_is_executed(@TempDir Path t
                             Files.exists(tempDir.resolve("gradle/dependency-locks")),
           "Lockfile of subproject must be generated");
     }
+
+    @Test
+    void writes_report_of_dependency_updates(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking.enable = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .rootProject(
+              "apply plugin: 'java'\n")
+          .subProject("subproject",
+              "apply plugin: 'java'\n");
+
+      BuildResult result = GradleRunner.create()
+          .withArguments("updateDependencies")
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+
+      Assertions.assertTrue(result.getOutput().contains("Slowest configurations:"),
+          "Summary of the slowest configurations must be printed");
+      Assertions.assertTrue(
+          Files.readString(tempDir.resolve("build/reports/gradle-helper/update-dependencies.json"))
+              .contains("\"project\": \":subproject\""),
+          "JSON report must contain subproject");
+      Assertions.assertTrue(Files.exists(tempDir.resolve("build/reports/gradle-helper/update-dependencies.html")),
+          "HTML report must be written");
+    }
+
+    @Test
+    void updates_lockfiles_without_downloading_artifacts(@TempDir Path tempDir) throws IOException {
+      Path mavenRepositoryRoot = tempDir.resolve("maven");
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(mavenRepositoryRoot)
+          .module("group", "module", "1.0")
+          .generate();
+      // The update must fail if it tries to download the artifact.
+      Files.delete(mavenRepositoryRoot.resolve("group/module/1.0/module-1.0.jar"));
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking.enable = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject", projectRequestingModule(mavenRepository, "group:module:1.0"));
+
+      GradleRunner.create()
+          .withArguments("updateDependencies")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+
+      Assertions.assertTrue(
+          Files.readString(projectDir.resolve("subproject/gradle.lockfile")).contains("group:module:1.0="),
+          "Lockfile must be written");
+    }
+
+    @Test
+    void deduplicates_equivalent_configurations(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .module("group", "module", "1.1")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking {\n" +
+              "    enable = true\n" +
+              "    deduplicateConfigurations = true\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'a', 'b'\n")
+          .subProject("a", projectRequestingModule(mavenRepository, "group:module:[1.0,2.0)"))
+          .subProject("b", projectRequestingModule(mavenRepository, "group:module:[1.0,2.0)"));
+
+      BuildResult result = GradleRunner.create()
+          .withArguments("updateDependencies")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+
+      Assertions.assertTrue(result.getOutput().contains("from equivalent configurations"),
+          "Deduplication ratio must be reported");
+      String lockfileA = Files.readString(projectDir.resolve("a/gradle.lockfile"));
+      Assertions.assertTrue(lockfileA.contains("group:module:1.1="), "Lockfile must be written");
+      Assertions.assertEquals(lockfileA, Files.readString(projectDir.resolve("b/gradle.lockfile")),
+          "Equivalent projects must have the same lockfile");
+    }
+
+    @Test
+    void resolves_configurations_with_own_rules_on_their_own(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .module("group", "module", "1.1")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking {\n" +
+              "    enable = true\n" +
+              "    deduplicateConfigurations = true\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'a', 'b', 'c'\n")
+          .subProject("a", projectRequestingModule(mavenRepository, "group:module:[1.0,2.0)"))
+          .subProject("b",
+              projectRequestingModule(mavenRepository, "group:module:[1.0,2.0)") +
+              "\n" +
+              "configurations.all {\n" +
+              "  resolutionStrategy.eachDependency { details ->\n" +
+              "    details.useVersion('1.0')\n" +
+              "  }\n" +
+              "}\n")
+          .subProject("c",
+              projectRequestingModule(mavenRepository, "group:module:[1.0,2.0)") +
+              "\n" +
+              "configurations.all {\n" +
+              "  exclude group: 'group', module: 'module'\n" +
+              "}\n");
+
+      GradleRunner.create()
+          .withArguments("updateDependencies")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+
+      Assertions.assertTrue(Files.readString(projectDir.resolve("a/gradle.lockfile")).contains("group:module:1.1="),
+          "Lockfile must be written");
+      Assertions.assertTrue(Files.readString(projectDir.resolve("b/gradle.lockfile")).contains("group:module:1.0="),
+          "Rules of the build script must take precedence");
+      Assertions.assertFalse(Files.readString(projectDir.resolve("c/gradle.lockfile")).contains("group:module"),
+          "Excluded module must not be locked");
+    }
+
+    @Test
+    void resolves_offline_from_exported_seed_repository(@TempDir Path tempDir) throws IOException {
+      Path mavenRepositoryRoot = tempDir.resolve("maven");
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(mavenRepositoryRoot)
+          .module("group", "module", "1.0")
+          .module("group", "module", "2.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator projectGenerator = ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking {\n" +
+              "    enable = true\n" +
+              "    seedRepository = file('seed')\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject", projectRequestingModule(mavenRepository, "group:module:1.0"));
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.withArguments("updateDependencies").build();
+      runner.withArguments("exportSeedRepository").build();
+
+      Path seedRepository = projectDir.resolve("seed/group/module");
+      Assertions.assertTrue(Files.exists(seedRepository.resolve("1.0/module-1.0.jar")), "Artifact must be exported");
+      Assertions.assertTrue(Files.exists(seedRepository.resolve("1.0/module-1.0.jar.sha1")), "Checksum must be written");
+      Assertions.assertTrue(Files.exists(seedRepository.resolve("1.0/module-1.0.pom")), "POM must be exported");
+      Assertions.assertTrue(Files.exists(seedRepository.resolve("maven-metadata.xml")), "Metadata must be written");
+
+      projectGenerator.subProject("subproject", projectRequestingModule(mavenRepository, "group:module:2.0"));
+      runner.withArguments("updateDependencies").build();
+      BuildResult export = runner.withArguments("exportSeedRepository").build();
+      Assertions.assertEquals(TaskOutcome.SUCCESS, export.task(":exportSeedRepository").getOutcome(),
+          "Changed lockfiles must be exported again");
+      Assertions.assertTrue(Files.exists(seedRepository.resolve("2.0/module-2.0.jar")), "Updated module must be exported");
+
+      Files.move(mavenRepositoryRoot, tempDir.resolve("unavailable"));
+      BuildResult result = runner.withArguments("resolve", "--offline").build();
+      Assertions.assertTrue(result.getOutput().contains("module-2.0.jar"), "Module must be resolved from seed repository");
+    }
+
+    @Test
+    void does_not_export_modules_with_missing_artifacts(@TempDir Path tempDir) throws IOException {
+      Path mavenRepositoryRoot = tempDir.resolve("maven");
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(mavenRepositoryRoot)
+          .module("group", "module", "1.0")
+          .module("group", "broken", "1.0")
+          .generate();
+      try (DirectoryStream<Path> jars = Files.newDirectoryStream(
+          mavenRepositoryRoot.resolve("group/broken/1.0"), "broken-1.0.jar*"))
+      {
+        for (Path jar : jars) {
+          Files.delete(jar);
+        }
+      }
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking {\n" +
+              "    enable = true\n" +
+              "    seedRepository = file('seed')\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              projectRequestingModule(mavenRepository, "group:module:1.0") +
+              "\n" +
+              "dependencies {\n" +
+              "  implementation 'group:broken:1.0'\n" +
+              "}\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.withArguments("updateDependencies").build();
+      BuildResult result = runner.withArguments("exportSeedRepository").build();
+
+      Assertions.assertTrue(result.getOutput().contains("Module group:broken:1.0 is not exported"),
+          "Skipped module must be reported");
+      Path seedRepository = projectDir.resolve("seed/group");
+      Assertions.assertTrue(Files.exists(seedRepository.resolve("module/1.0/module-1.0.pom")),
+          "Complete module must be exported");
+      Assertions.assertFalse(Files.exists(seedRepository.resolve("broken")),
+          "Metadata of module without artifacts must not be exported");
+    }
+
+    @Test
+    void updates_dependencies_of_single_project_when_project_task_is_executed(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .rootProject(
+              "apply plugin: 'java'\n")
+          .subProject("subproject",
+              "apply plugin: 'java'\n");
+
+      GradleRunner.create()
+          .withArguments(":subproject:updateProjectDependencies")
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+
+      Assertions.assertFalse(Files.exists(tempDir.resolve("gradle.lockfile")),
+          "Lockfile of root project must not be generated");
+      Assertions.assertTrue(Files.exists(tempDir.resolve("subproject/gradle.lockfile")),
+          "Lockfile of subproject must be generated");
+    }
+
+    @Test
+    void limits_number_of_parallel_updates(@TempDir Path tempDir) throws IOException {
+      @Language("groovy")
+      String subproject =
+          "apply plugin: 'java'\n" +
+          "\n" +
+          "def running = System.properties.computeIfAbsent('gradle-helper.test.running',\n" +
+          "    { new java.util.concurrent.atomic.AtomicInteger() })\n" +
+          "updateProjectDependencies {\n" +
+          "  doFirst {\n" +
+          "    assert running.incrementAndGet() == 1\n" +
+          "    Thread.sleep(500)\n" +
+          "  }\n" +
+          "  doLast {\n" +
+          "    running.decrementAndGet()\n" +
+          "  }\n" +
+          "}\n";
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "  dependencyLocking.maxParallelUpdates = 1\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject1'\n" +
+              "include 'subproject2'\n" +
+              "include 'subproject3'\n")
+          .subProject("subproject1", subproject)
+          .subProject("subproject2", subproject)
+          .subProject("subproject3", subproject);
+
+      GradleRunner.create()
+          .withArguments("updateDependencies", "--parallel")
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+
+      Assertions.assertTrue(Files.exists(tempDir.resolve("subproject1/gradle.lockfile")) &&
+                            Files.exists(tempDir.resolve("subproject2/gradle.lockfile")) &&
+                            Files.exists(tempDir.resolve("subproject3/gradle.lockfile")),
+          "Lockfiles of subprojects must be generated");
+    }
+
+    @Test
+    void skips_unchanged_projects_with_incremental_updates(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator projectGenerator = ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "  dependencyLocking.incrementalUpdates = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'changed'\n" +
+              "include 'unchanged'\n")
+          .subProject("changed",
+              "apply plugin: 'java'\n")
+          .subProject("unchanged",
+              "apply plugin: 'java'\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withArguments("updateDependencies")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+
+      BuildResult initialResult = runner.build();
+      Assertions.assertEquals(TaskOutcome.SUCCESS,
+          initialResult.task(":changed:updateProjectDependencies").getOutcome());
+      Assertions.assertEquals(TaskOutcome.SUCCESS,
+          initialResult.task(":unchanged:updateProjectDependencies").getOutcome());
+
+      projectGenerator.subProject("changed",
+          projectRequestingModule(mavenRepository, "group:module:[1.0, 2.0)"));
+
+      BuildResult result = runner.build();
+      Assertions.assertEquals(TaskOutcome.SUCCESS,
+          result.task(":changed:updateProjectDependencies").getOutcome());
+      Assertions.assertEquals(TaskOutcome.UP_TO_DATE,
+          result.task(":unchanged:updateProjectDependencies").getOutcome());
+      Assertions.assertTrue(
+          Files.readString(projectDir.resolve("changed/gradle.lockfile")).contains("group:module:1.0="),
+          "Lockfile of changed project must be updated");
+    }
+
+    @Test
+    void updates_only_selected_dependencies(@TempDir Path tempDir) throws IOException {
+      MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "selected", "1.0")
+          .module("group", "other", "1.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              "apply plugin: 'java'\n" +
+              "\n" +
+              "repositories {\n" +
+              "  maven {\n" +
+              "    url = '" + StringEscapeUtils.escapeJava(tempDir.resolve("maven").toUri().toString()) + "'\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "dependencies {\n" +
+              "  implementation 'group:selected:[1.0, 2.0)'\n" +
+              "  implementation 'group:other:[1.0, 2.0)'\n" +
+              "}\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.withArguments("updateDependencies").build();
+
+      MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "selected", "1.1")
+          .module("group", "other", "1.1")
+          .generate();
+      runner.withArguments("updateDependencies", "--dependency", "group:sel*").build();
+
+      String lockfile = Files.readString(projectDir.resolve("subproject/gradle.lockfile"));
+      Assertions.assertTrue(lockfile.contains("group:selected:1.1="), "Selected dependency must be updated");
+      Assertions.assertTrue(lockfile.contains("group:other:1.0="), "Other dependencies must not be updated");
+    }
+
+    @Test
+    void refreshes_only_dynamic_versions_when_requested(@TempDir Path tempDir) throws IOException {
+      MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .generate();
+
+      // Gradle does not cache the version listings of file repositories. Without
+      // refreshing them, the update would not see the new version for 24 hours.
+      try (MavenRepositoryServer server = MavenRepositoryServer.serveMavenRepository(tempDir.resolve("maven"))) {
+        Path projectDir = tempDir.resolve("gradle");
+        ProjectGenerator.generateGradleProject(projectDir)
+            .settings(
+                "plugins {\n" +
+                "  id 'dev.johanness.gradle-helper'\n" +
+                "}\n" +
+                "\n" +
+                "gradleHelper {\n" +
+                "  useVersionRangesWithDependencyLocking()\n" +
+                "  dependencyLocking.refreshDynamicVersionsOnly = true\n" +
+                "}\n")
+            .rootProject(
+                projectRequestingModule(server.getUri(), "group:module:[1.0, 2.0)") +
+                "\n" +
+                "repositories.all { allowInsecureProtocol = true }\n" +
+                "assert !gradle.startParameter.refreshDependencies\n");
+
+        GradleRunner runner = GradleRunner.create()
+            .withProjectDir(projectDir.toFile())
+            .withPluginClasspath()
+            .withDebug(true);
+        runner.withArguments("updateDependencies").build();
+
+        MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+            .module("group", "module", "1.1")
+            .generate();
+        runner.build();
+        Assertions.assertTrue(
+            Files.readString(projectDir.resolve("gradle.lockfile")).contains("group:module:1.1="),
+            "Lockfile must contain the new version");
+      }
+    }
+
+    @Test
+    void updates_every_project_in_exactly_one_shard(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator projectGenerator = ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking.enable = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'a', 'b', 'c', 'd'\n");
+      for (String project : List.of("a", "b", "c", "d")) {
+        projectGenerator.subProject(project, "apply plugin: 'java'\n");
+      }
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      BuildResult firstShard = runner.withArguments("updateDependencies", "--shard", "1/2").build();
+      BuildResult secondShard = runner.withArguments("updateDependencies", "--shard", "2/2").build();
+
+      for (String project : List.of(":", ":a:", ":b:", ":c:", ":d:")) {
+        String taskPath = project + "updateProjectDependencies";
+        Assertions.assertTrue(firstShard.task(taskPath) == null ^ secondShard.task(taskPath) == null,
+            taskPath + " must be executed by exactly one shard");
+      }
+    }
+
+    @Test
+    void detects_inconsistent_lockfiles(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking.enable = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'a', 'b'\n")
+          .subProject("a",
+              "apply plugin: 'java'\n" +
+              "\n" +
+              "dependencies {\n" +
+              "  implementation 'group:module:[1.0, 2.0)'\n" +
+              "  implementation 'group:fixed:1.0'\n" +
+              "}\n")
+          .subProject("b",
+              "apply plugin: 'java'\n" +
+              "\n" +
+              "dependencies {\n" +
+              "  implementation 'group:module:[1.0, 2.0)'\n" +
+              "  implementation 'group:fixed:2.0'\n" +
+              "}\n");
+      Files.writeString(tempDir.resolve("a/gradle.lockfile"),
+          "group:fixed:1.0=compileClasspath\n" +
+          "group:module:1.0=compileClasspath\n");
+      Files.writeString(tempDir.resolve("b/gradle.lockfile"),
+          "group:fixed:2.0=compileClasspath\n" +
+          "group:module:1.1=compileClasspath\n");
+
+      BuildResult result = GradleRunner.create()
+          .withArguments("checkLockConsistency")
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .buildAndFail();
+      Assertions.assertTrue(
+          result.getOutput().contains("group:module is locked in different versions: 1.0 in :a; 1.1 in :b"),
+          "Inconsistent module must be reported");
+      Assertions.assertFalse(result.getOutput().contains("group:fixed is locked"),
+          "Modules with fixed versions may differ between projects");
+    }
+
+    @Test
+    void verifies_lockfiles_against_declared_dependencies(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .module("group", "other", "1.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator projectGenerator = ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking.enable = true\n" +
+              "}\n")
+          .rootProject(
+              projectRequestingModule(mavenRepository, "group:module:1.0"));
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.withArguments("updateDependencies").build();
+
+      BuildResult verified = runner.withArguments("verifyDependencyLocks").build();
+      Assertions.assertEquals(TaskOutcome.SUCCESS, verified.task(":verifyDependencyLocks").getOutcome());
+      BuildResult unchanged = runner.withArguments("verifyDependencyLocks").build();
+      Assertions.assertEquals(TaskOutcome.UP_TO_DATE, unchanged.task(":verifyDependencyLocks").getOutcome());
+
+      projectGenerator.rootProject(
+          projectRequestingModule(mavenRepository, "group:module:1.0") +
+          "\n" +
+          "dependencies {\n" +
+          "  implementation 'group:other:1.0'\n" +
+          "}\n");
+      BuildResult drifted = runner.withArguments("verifyDependencyLocks").buildAndFail();
+      Assertions.assertTrue(drifted.getOutput().contains("is out of date"),
+          "Outdated lock state must be reported");
+
+      projectGenerator.rootProject(projectRequestingModule(mavenRepository, "group:module:1.0"));
+      Files.move(tempDir.resolve("maven"), tempDir.resolve("unavailable"));
+      Files.delete(projectDir.resolve("build/gradle-helper/verify-dependency-locks.properties"));
+      BuildResult unavailable = runner.withArguments("verifyDependencyLocks").buildAndFail();
+      Assertions.assertFalse(unavailable.getOutput().contains("is out of date"),
+          "Unavailable repository must not be reported as outdated lock state");
+    }
+
+    @Test
+    void queries_lockfile_index(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyLocking.enable = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'a', 'b'\n")
+          .subProject("a", "")
+          .subProject("b", "");
+      Files.writeString(tempDir.resolve("a/gradle.lockfile"),
+          "group:module:1.0=compileClasspath,runtimeClasspath\n" +
+          "group:other:2.0=runtimeClasspath\n");
+      Files.writeString(tempDir.resolve("b/gradle.lockfile"),
+          "group:module:1.5=compileClasspath\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      BuildResult byModule = runner.withArguments("queryLockfiles", "--module", "group:module").build();
+      Assertions.assertTrue(byModule.getOutput().contains(":a compileClasspath group:module:1.0"));
+      Assertions.assertTrue(byModule.getOutput().contains(":b compileClasspath group:module:1.5"));
+      Assertions.assertTrue(byModule.getOutput().contains("Found 3 matching lockfile entries"));
+
+      Files.writeString(tempDir.resolve("b/gradle.lockfile"),
+          "group:module:2.1=compileClasspath\n");
+      BuildResult byRange = runner.withArguments(
+          "queryLockfiles", "--module", "group:*", "--version", "[2.0,3.0)", "--info").build();
+      Assertions.assertTrue(byRange.getOutput().contains(":a runtimeClasspath group:other:2.0"));
+      Assertions.assertTrue(byRange.getOutput().contains(":b compileClasspath group:module:2.1"));
+      Assertions.assertTrue(byRange.getOutput().contains("Found 2 matching lockfile entries"));
+      Assertions.assertTrue(byRange.getOutput().contains("(1 changed)"),
+          "Index must be updated incrementally");
+
+      BuildResult byProject = runner.withArguments("queryLockfiles", "--project", ":a").build();
+      Assertions.assertTrue(byProject.getOutput().contains("Found 3 matching lockfile entries"));
+    }
+
+    @Test
+    void supports_configuration_cache(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "  dependencyLocking.incrementalUpdates = true\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              projectRequestingModule(mavenRepository, "group:module:[1.0, 2.0)"));
+
+      GradleRunner runner = GradleRunner.create()
+          .withArguments("updateDependencies", "--configuration-cache")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+
+      runner.build();
+      Assertions.assertTrue(
+          Files.readString(projectDir.resolve("subproject/gradle.lockfile")).contains("group:module:1.0="),
+          "Lockfile must be written");
+
+      BuildResult result = runner.build();
+      Assertions.assertTrue(result.getOutput().contains("Reusing configuration cache."),
+          "Configuration cache must be reused");
+      Assertions.assertEquals(TaskOutcome.UP_TO_DATE,
+          result.task(":subproject:updateProjectDependencies").getOutcome());
+    }
+
+    @Test
+    void resolves_dependencies_when_task_runs_with_configuration_cache(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .generate();
+      MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("next"))
+          .module("group", "module", "1.0")
+          .module("group", "module", "1.1")
+          .generate();
+      Path repository = tempDir.resolve("maven/group/module");
+      Path nextRepository = tempDir.resolve("next/group/module");
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              projectRequestingModule(mavenRepository, "group:module:[1.0, 2.0)") +
+              "\n" +
+              // Publishes a new version after the configuration cache entry has been stored.
+              "updateProjectDependencies.doFirst {\n" +
+              "  def source = new File('" + StringEscapeUtils.escapeJava(nextRepository.toString()) + "')\n" +
+              "  def target = new File('" + StringEscapeUtils.escapeJava(repository.toString()) + "')\n" +
+              "  new File(target, '1.1').mkdirs()\n" +
+              "  new File(source, '1.1').eachFile { new File(target, '1.1/' + it.name).bytes = it.bytes }\n" +
+              "  new File(target, 'maven-metadata.xml').bytes = new File(source, 'maven-metadata.xml').bytes\n" +
+              "}\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withArguments("updateDependencies", "--configuration-cache")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.build();
+
+      Assertions.assertTrue(
+          Files.readString(projectDir.resolve("subproject/gradle.lockfile")).contains("group:module:1.1="),
+          "Dependencies must be resolved when the task runs");
+    }
+
+    @Test
+    void confirms_fixed_versions_from_reused_configuration_cache_entry(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              projectRequestingModule(mavenRepository, "group:module:1.0"));
+
+      GradleRunner runner = GradleRunner.create()
+          .withArguments("updateDependencies", "--configuration-cache")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.build();
+
+      BuildResult result = runner.build();
+      Assertions.assertTrue(result.getOutput().contains("Reusing configuration cache."),
+          "Configuration cache must be reused");
+      Assertions.assertEquals(TaskOutcome.UP_TO_DATE,
+          result.task(":subproject:updateProjectDependencies").getOutcome());
+    }
+
+    @Test
+    void fails_to_update_from_reused_configuration_cache_entry(@TempDir Path tempDir) throws IOException {
+      URI mavenRepository = MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.0")
+          .generate();
+
+      Path projectDir = tempDir.resolve("gradle");
+      ProjectGenerator.generateGradleProject(projectDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  useVersionRangesWithDependencyLocking()\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              projectRequestingModule(mavenRepository, "group:module:[1.0, 2.0)"));
+
+      GradleRunner runner = GradleRunner.create()
+          .withArguments("updateDependencies", "--configuration-cache")
+          .withProjectDir(projectDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.build();
+
+      MavenRepositoryGenerator.generateMavenRepository(tempDir.resolve("maven"))
+          .module("group", "module", "1.1")
+          .generate();
+      BuildResult result = runner.buildAndFail();
+      Assertions.assertTrue(result.getOutput().contains("Reusing configuration cache."),
+          "Configuration cache must be reused");
+      Assertions.assertTrue(result.getOutput().contains("--no-configuration-cache"),
+          "Failure must explain how to update the lockfiles");
+
+      runner.withArguments("updateDependencies", "--no-configuration-cache").build();
+      Assertions.assertTrue(
+          Files.readString(projectDir.resolve("subproject/gradle.lockfile")).contains("group:module:1.1="),
+          "Lockfile must contain the new version");
+    }
+  }
+
+  @Nested
+  final class BuildCache {
+    @Test
+    void builds_reproducible_archives(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  buildCache {\n" +
+              "    normalize = true\n" +
+              "    report = true\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .subProject("subproject",
+              "apply plugin: 'java'\n" +
+              "\n" +
+              "compileJava.options.compilerArgs << \"-Aroot=${rootDir}\"\n" +
+              "\n" +
+              "assert !jar.preserveFileTimestamps\n" +
+              "assert jar.reproducibleFileOrder\n");
+      Path resource = tempDir.resolve("subproject/src/main/resources/data.txt");
+      Files.createDirectories(resource.getParent());
+      Files.writeString(resource, "data");
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      BuildResult result = runner.withArguments("jar").build();
+      Assertions.assertTrue(result.getOutput().contains("has an absolute path in its compiler arguments"),
+          "Absolute path must be reported");
+      Path jar = tempDir.resolve("subproject/build/libs/subproject.jar");
+      byte[] firstJar = Files.readAllBytes(jar);
+
+      Files.setLastModifiedTime(resource, FileTime.fromMillis(0));
+      runner.withArguments("clean", "jar").build();
+      Assertions.assertArrayEquals(firstJar, Files.readAllBytes(jar), "Archive must be reproducible");
+
+      String report = Files.readString(tempDir.resolve("build/reports/gradle-helper/build-cache-normalization.txt"));
+      Assertions.assertTrue(report.contains(":subproject:jar: "), "Changed task must be reported");
+      Assertions.assertTrue(report.contains(":subproject:compileJava: WARNING: "), "Warning must be reported");
+    }
+
+    @Test
+    void never_adds_file_permissions(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  buildCache {\n" +
+              "    normalize = true\n" +
+              "    report = true\n" +
+              "  }\n" +
+              "}\n")
+          .rootProject(
+              "apply plugin: 'base'\n" +
+              "\n" +
+              "task dist(type: Tar) {\n" +
+              "  from 'dist'\n" +
+              "  archiveFileName = 'dist.tar'\n" +
+              "  reproducibleFileOrder = true\n" +
+              "  preserveFileTimestamps = false\n" +
+              "}\n" +
+              "\n" +
+              "task keys(type: Tar) {\n" +
+              "  from 'dist/key'\n" +
+              "  archiveFileName = 'keys.tar'\n" +
+              "  reproducibleFileOrder = true\n" +
+              "  preserveFileTimestamps = false\n" +
+              "}\n" +
+              "\n" +
+              "task printModes {\n" +
+              "  dependsOn dist, keys\n" +
+              "  doLast {\n" +
+              "    tarTree(dist.archiveFile).visit { details ->\n" +
+              "      if (!details.directory) {\n" +
+              "        logger.warn(\"Mode of ${details.name}: ${Integer.toOctalString(details.mode)}\")\n" +
+              "      }\n" +
+              "    }\n" +
+              "  }\n" +
+              "}\n");
+      Path key = tempDir.resolve("dist/key");
+      Path data = tempDir.resolve("dist/data.txt");
+      Files.createDirectories(key.getParent());
+      Files.writeString(key, "secret");
+      Files.writeString(data, "data");
+      Files.setPosixFilePermissions(key, PosixFilePermissions.fromString("rw-------"));
+      Files.setPosixFilePermissions(data, PosixFilePermissions.fromString("rw-rw-r--"));
+
+      BuildResult result = GradleRunner.create()
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .withArguments("printModes")
+          .build();
+      Assertions.assertTrue(result.getOutput().contains("Mode of key: 600"), "Private file must stay private");
+      Assertions.assertTrue(result.getOutput().contains("Mode of data.txt: 644"), "Group must not keep write access");
+
+      String report = Files.readString(tempDir.resolve("build/reports/gradle-helper/build-cache-normalization.txt"));
+      Assertions.assertTrue(report.contains(":dist: normalized file permissions"), "Changed mode must be reported");
+      Assertions.assertFalse(report.contains(":keys:"), "Unchanged task must not be reported");
+    }
+
+    @Test
+    void explains_differences_of_task_inputs(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  buildCache.recordTaskInputs = true\n" +
+              "}\n")
+          .rootProject(
+              "apply plugin: 'java'\n" +
+              "\n" +
+              "compileJava.options.compilerArgs << '-parameters'\n");
+      Path source = tempDir.resolve("src/main/java/A.java");
+      Files.createDirectories(source.getParent());
+      Files.writeString(source, "class A {}\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.withArguments("compileJava").build();
+      Path recording = tempDir.resolve("build/gradle-helper/task-inputs.gz");
+      Path baseline = tempDir.resolve("baseline.gz");
+      Files.copy(recording, baseline);
+
+      Files.writeString(source, "class A { int a; }\n");
+      runner.withArguments("compileJava").build();
+      BuildResult result = runner.withArguments("compareTaskInputs", "--baseline", "baseline.gz").build();
+      Assertions.assertTrue(result.getOutput().contains(":compileJava: file src/main/java/A.java differs"),
+          "Changed source file must be reported");
+      Assertions.assertFalse(result.getOutput().contains(":compileJava: property "),
+          "Unchanged properties must not be reported");
+      Assertions.assertTrue(result.getOutput().contains("Found 1 differences"));
+    }
+  }
+
+  @Nested
+  final class BuildHistory {
+    @Test
+    void reports_trends_of_task_executions(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  buildHistory {\n" +
+              "    enable = true\n" +
+              "    maxBuilds = 2\n" +
+              "  }\n" +
+              "}\n")
+          .rootProject(
+              "apply plugin: 'java'\n");
+      Path source = tempDir.resolve("src/main/java/A.java");
+      Files.createDirectories(source.getParent());
+      Files.writeString(source, "class A {}\n");
+
+      GradleRunner runner = GradleRunner.create()
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true);
+      runner.withArguments("compileJava").build();
+      runner.withArguments("compileJava").build();
+      runner.withArguments("compileJava").build();
+      List<String> history = Files.readAllLines(tempDir.resolve(".gradle/gradle-helper/task-history.txt"));
+      Assertions.assertEquals(2, history.stream().filter(line -> line.contains("\t:compileJava\t")).count(),
+          "History must be limited to maxBuilds");
+      Assertions.assertTrue(history.stream().anyMatch(line -> line.contains("\t:compileJava\tUP_TO_DATE\t")),
+          "Outcome must be recorded");
+
+      BuildResult result = runner.withArguments("buildTrends").build();
+      Assertions.assertTrue(result.getOutput().contains(":compileJava "), "Task must be reported");
+      Assertions.assertTrue(result.getOutput().contains("tasks regressed in the latest build"));
+    }
+  }
+
+  @Nested
+  final class ConfigurationBudget {
+    @Test
+    void fails_when_configuration_exceeds_budget(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  configurationBudget {\n" +
+              "    perProject = java.time.Duration.ofMillis(200)\n" +
+              "    failBuild = true\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'fast', 'slow'\n")
+          .subProject("fast", "")
+          .subProject("slow", "Thread.sleep(500)\n");
+
+      BuildResult result = GradleRunner.create()
+          .withArguments("help")
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .buildAndFail();
+      Assertions.assertTrue(result.getOutput().contains("The configuration of :slow exceeds the budget"),
+          "Slow project must be named");
+      Assertions.assertTrue(result.getOutput().contains("slow/build.gradle (:slow): "),
+          "Slow build script must be named");
+    }
+  }
+
+  @Nested
+  final class ConfigurationAvoidance {
+    @Test
+    void does_not_realize_unused_tasks_and_configurations(@TempDir Path tempDir) throws IOException {
+      ProjectGenerator.generateGradleProject(tempDir)
+          .settings(
+              "plugins {\n" +
+              "  id 'dev.johanness.gradle-helper'\n" +
+              "}\n" +
+              "\n" +
+              "gradleHelper {\n" +
+              "  dependencyResolution {\n" +
+              "    rejectPreReleases = true\n" +
+              "  }\n" +
+              "}\n" +
+              "\n" +
+              "include 'subproject'\n")
+          .rootProject(
+              "apply plugin: 'java'\n")
+          .subProject("subproject",
+              "apply plugin: 'java'\n" +
+              "\n" +
+              "tasks.register('unusedCompile', JavaCompile) {\n" +
+              "  throw new GradleException('Task must not be realized')\n" +
+              "}\n" +
+              "tasks.register('unusedJavadoc', Javadoc) {\n" +
+              "  throw new GradleException('Task must not be realized')\n" +
+              "}\n" +
+              "configurations.register('unused') {\n" +
+              "  throw new GradleException('Configuration must not be realized')\n" +
+              "}\n");
+
+      BuildResult result = GradleRunner.create()
+          .withArguments("help", "--info")
+          .withProjectDir(tempDir.toFile())
+          .withPluginClasspath()
+          .withDebug(true)
+          .build();
+      Assertions.assertTrue(result.getOutput().contains("gradle-helper: Realized "),
+          "Number of realized tasks and configurations must be reported");
+    }
   }
 
   @Language("groovy")
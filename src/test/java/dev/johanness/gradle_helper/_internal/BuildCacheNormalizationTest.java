@@ -0,0 +1,51 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class BuildCacheNormalizationTest {
+  @Test
+  void removes_write_permissions_of_group_and_others() {
+    assertEquals(0644, BuildCacheNormalization.fileMode(0664));
+    assertEquals(0644, BuildCacheNormalization.fileMode(0666));
+    assertEquals(0755, BuildCacheNormalization.fileMode(0775));
+    assertEquals(0755, BuildCacheNormalization.fileMode(0777));
+  }
+
+  @Test
+  void lets_owner_decide_whether_file_is_executable() {
+    assertEquals(0644, BuildCacheNormalization.fileMode(0644 | 0011));
+    assertEquals(0744, BuildCacheNormalization.fileMode(0744));
+  }
+
+  @Test
+  void never_adds_permissions() {
+    assertEquals(0600, BuildCacheNormalization.fileMode(0600));
+    assertEquals(0640, BuildCacheNormalization.fileMode(0660));
+    assertEquals(0700, BuildCacheNormalization.fileMode(0700));
+    assertEquals(0444, BuildCacheNormalization.fileMode(0444));
+  }
+
+  @Test
+  void finds_arguments_with_absolute_paths() {
+    Path directory = Path.of("/work/project").toAbsolutePath();
+    String path = directory.toString();
+    assertEquals(
+        List.of("-Aroot=" + path, path + "/src/generated"),
+        BuildCacheNormalization.absolutePathArguments(
+            List.of("-parameters", "-Aroot=" + path, path + "/src/generated", "-Aother=/work/other"),
+            directory));
+  }
+
+  @Test
+  void finds_arguments_with_forward_slashes() {
+    Path directory = Path.of("/work/project").toAbsolutePath();
+    String argument = "-Aroot=" + directory.toString().replace('\\', '/');
+    assertEquals(List.of(argument),
+        BuildCacheNormalization.absolutePathArguments(List.of(argument), directory));
+  }
+}
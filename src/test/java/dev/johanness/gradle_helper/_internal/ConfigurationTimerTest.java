@@ -0,0 +1,60 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ConfigurationTimerTest {
+  private static final long MS = 1_000_000;
+
+  @Test
+  void attributes_nested_evaluation_to_inner_project() {
+    ConfigurationTimer timer = new ConfigurationTimer();
+    timer.projectStarted(":", "build.gradle", 0);
+    timer.pluginFinished(":", 5 * MS);
+    timer.projectStarted(":a", "a/build.gradle", 10 * MS);
+    timer.pluginFinished(":a", 11 * MS);
+    timer.projectFinished(":a", 40 * MS);
+    timer.projectFinished(":", 50 * MS);
+
+    List<ConfigurationTimer.ProjectTime> projects = timer.slowestFirst();
+    assertEquals(List.of(":a", ":"),
+        projects.stream().map(ConfigurationTimer.ProjectTime::getProjectPath).collect(Collectors.toList()));
+    assertEquals(Duration.ofMillis(30), projects.get(0).getDuration());
+    assertEquals(Duration.ofMillis(20), projects.get(1).getDuration());
+    assertEquals(Duration.ofMillis(50), timer.total());
+    assertEquals(Duration.ofMillis(6), timer.pluginTotal());
+  }
+
+  @Test
+  void ignores_projects_started_before_plugin() {
+    ConfigurationTimer timer = new ConfigurationTimer();
+    timer.projectFinished(":", 10 * MS);
+    assertEquals(Duration.ZERO, timer.total());
+  }
+
+  @Test
+  void names_slowest_build_scripts_when_budget_is_exceeded() {
+    ConfigurationTimer timer = new ConfigurationTimer();
+    timer.projectStarted(":a", "a/build.gradle", 0);
+    timer.projectFinished(":a", 300 * MS);
+    timer.projectStarted(":b", "b/build.gradle.kts", 300 * MS);
+    timer.projectFinished(":b", 1000 * MS);
+
+    assertNull(timer.checkBudget(Duration.ofSeconds(2), Duration.ofSeconds(1)));
+    assertNull(timer.checkBudget(null, null));
+
+    String problem = timer.checkBudget(Duration.ofMillis(500), Duration.ofMillis(600));
+    assertTrue(problem.startsWith(
+        "Configuration took 1.00 s, which exceeds the budget of 0.50 s. " +
+        "The configuration of :b exceeds the budget of 0.60 s per project. Slowest build scripts:\n" +
+        "  b/build.gradle.kts (:b): 0.70 s"), problem);
+    assertTrue(problem.indexOf("b/build.gradle.kts") < problem.indexOf("a/build.gradle"), problem);
+  }
+}
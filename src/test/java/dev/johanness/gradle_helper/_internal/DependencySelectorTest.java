@@ -0,0 +1,39 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class DependencySelectorTest {
+  @Test
+  void matches_all_versions_if_version_is_omitted() {
+    DependencySelector selector = new DependencySelector(List.of("com.fasterxml.jackson*:*"));
+    assertTrue(selector.matches("com.fasterxml.jackson.core:jackson-core:2.11.0"));
+    assertTrue(selector.matches("com.fasterxml.jackson.module:jackson-module-kotlin:2.11.0"));
+    assertFalse(selector.matches("com.fasterxml:classmate:1.5.1"));
+  }
+
+  @Test
+  void matches_version_if_given() {
+    DependencySelector selector = new DependencySelector(List.of("g:m:1.*"));
+    assertTrue(selector.matches("g:m:1.0"));
+    assertFalse(selector.matches("g:m:2.0"));
+  }
+
+  @Test
+  void selects_modules_of_lock_state() {
+    LockState lockState = LockState.of(Map.of(
+        "compileClasspath", Set.of("g:a:1.0", "h:b:1.0"),
+        "runtimeClasspath", Set.of("g:a:1.0", "g:c:2.0", "h:d:1.0")));
+
+    assertEquals(Set.of("g:a", "g:c"), new DependencySelector(List.of("g:*")).selectModules(lockState));
+    assertEquals(Set.of("runtimeClasspath"), lockState.configurationsLocking(Set.of("g:c")));
+    assertEquals(Set.of("compileClasspath", "runtimeClasspath"), lockState.configurationsLocking(Set.of("g:a")));
+  }
+}
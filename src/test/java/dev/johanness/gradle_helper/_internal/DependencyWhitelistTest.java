@@ -7,7 +7,10 @@
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -42,6 +45,16 @@ void expressions_can_have_multiple_wildcards() {
     assertNotContains(whitelist, candidate("g", "m", "v11"));
   }
 
+  @Test
+  void returns_index_of_matching_expression() {
+    DependencyWhitelist whitelist = new DependencyWhitelist(
+        List.of("g:m1:*", "invalid", "g:*:*-dev", "*:m3:1.0"));
+    assertEquals(0, whitelist.indexOf("g", "m1", "1.0"));
+    assertEquals(2, whitelist.indexOf("g", "m2", "1.0-dev"));
+    assertEquals(3, whitelist.indexOf("h", "m3", "1.0"));
+    assertEquals(-1, whitelist.indexOf("h", "m1", "1.0"));
+  }
+
   @Test
   void multiple_expressions_can_be_listed() {
     DependencyWhitelist whitelist = new DependencyWhitelist(
@@ -52,6 +65,67 @@ void multiple_expressions_can_be_listed() {
     assertNotContains(whitelist, candidate("g", "m4", ""));
   }
 
+  @Test
+  void expressions_can_have_wildcards_in_group_and_module() {
+    DependencyWhitelist whitelist = new DependencyWhitelist(
+        List.of("com.example*:m:1.0", "g:*-test:*", "*:*:2.0-beta"));
+    assertContains(whitelist, candidate("com.example", "m", "1.0"));
+    assertContains(whitelist, candidate("com.example.sub", "m", "1.0"));
+    assertContains(whitelist, candidate("g", "module-test", "x"));
+    assertContains(whitelist, candidate("other", "other", "2.0-beta"));
+    assertNotContains(whitelist, candidate("com.example", "m", "1.1"));
+    assertNotContains(whitelist, candidate("g", "module", "x"));
+    assertNotContains(whitelist, candidate("other", "other", "2.0"));
+  }
+
+  @Test
+  void matches_like_regular_expression_of_previous_implementation() {
+    List<String> expressions = List.of(
+        "*", "*:*", "*:*:*", "g:m:*", "g:*:*", "*:m:*", "g*:m:v", "*g:m:v", "g:m*m:v",
+        "g:m:*-*-*", "g:m:a*a", "g:m:a*a*a", "g:m:\\*", "g:m:*\\*", "g:m:\\\\*", "g:m:\\x", "g\\:m:v",
+        "g:m:v:*", "g:m", "::", "g::*", ":m:");
+    List<String> parts = List.of("", "g", "gg", "m", "mm", "mxm", "v", "a", "aa", "aaa", "aba",
+        "1-2", "1-2-3", "*", "\\", "\\x", "\\test", "x");
+    for (String expression : expressions) {
+      DependencyWhitelist whitelist = new DependencyWhitelist(List.of(expression));
+      Pattern pattern = previousImplementation(expression);
+      for (String group : parts) {
+        for (String module : parts) {
+          for (String version : parts) {
+            ModuleComponentIdentifier candidate = candidate(group, module, version);
+            assertEquals(pattern.matcher(candidate.getDisplayName()).matches(), whitelist.contains(candidate),
+                expression + " ~ " + candidate.getDisplayName());
+          }
+        }
+      }
+    }
+  }
+
+  private static @NotNull Pattern previousImplementation(@NotNull String globExpression) {
+    StringBuilder pattern = new StringBuilder();
+    StringBuilder mustBeQuoted = new StringBuilder();
+    Matcher matcher = Pattern.compile("\\*|[\\\\]{2}|\\\\\\*").matcher(globExpression);
+    while (matcher.find()) {
+      matcher.appendReplacement(mustBeQuoted, "");
+      switch (matcher.group()) {
+        case "*":
+          pattern.append(Pattern.quote(mustBeQuoted.toString()));
+          mustBeQuoted.setLength(0);
+          pattern.append("[^:]*");
+          break;
+        case "\\\\":
+          mustBeQuoted.append("\\");
+          break;
+        default:
+          mustBeQuoted.append('*');
+          break;
+      }
+    }
+    matcher.appendTail(mustBeQuoted);
+    pattern.append(Pattern.quote(mustBeQuoted.toString()));
+    return Pattern.compile(pattern.toString());
+  }
+
   private static @NotNull ModuleComponentIdentifier candidate(
       @NotNull String group,
       @NotNull String module,
@@ -0,0 +1,54 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class LockConsistencyTest {
+  @Test
+  void reports_modules_locked_in_different_versions() {
+    Map<String, LockState> lockStates = Map.of(
+        ":a", LockState.of(Map.of("compileClasspath", Set.of("g:m:1.0", "g:n:1.0"))),
+        ":b", LockState.of(Map.of("compileClasspath", Set.of("g:m:1.1", "g:n:1.0"))),
+        ":c", LockState.of(Map.of("runtimeClasspath", Set.of("g:m:1.1"))));
+
+    assertEquals(List.of("g:m is locked in different versions: 1.0 in :a; 1.1 in :b, :c"),
+        LockConsistency.check(lockStates, Set.of("g:m", "g:n")));
+  }
+
+  @Test
+  void accepts_consistent_lock_states() {
+    Map<String, LockState> lockStates = Map.of(
+        ":a", LockState.of(Map.of("compileClasspath", Set.of("g:m:1.0"))),
+        ":b", LockState.of(Map.of("compileClasspath", Set.of("g:m:1.0"))));
+
+    assertEquals(List.of(), LockConsistency.check(lockStates, Set.of("g:m")));
+  }
+
+  @Test
+  void accepts_different_versions_in_configurations_of_same_project() {
+    Map<String, LockState> lockStates = Map.of(
+        ":a", LockState.of(Map.of(
+            "compileClasspath", Set.of("g:m:1.0"),
+            "testCompileClasspath", Set.of("g:m:2.0"))),
+        ":b", LockState.of(Map.of(
+            "compileClasspath", Set.of("g:m:1.0"),
+            "testCompileClasspath", Set.of("g:m:2.0"))));
+
+    assertEquals(List.of(), LockConsistency.check(lockStates, Set.of("g:m")));
+    assertEquals(List.of(), LockConsistency.check(Map.of(":a", lockStates.get(":a")), Set.of("g:m")));
+  }
+
+  @Test
+  void ignores_modules_without_dynamic_version() {
+    Map<String, LockState> lockStates = Map.of(
+        ":a", LockState.of(Map.of("compileClasspath", Set.of("g:m:1.0"))),
+        ":b", LockState.of(Map.of("compileClasspath", Set.of("g:m:2.0"))));
+
+    assertEquals(List.of(), LockConsistency.check(lockStates, Set.of("g:other")));
+  }
+}
@@ -0,0 +1,64 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+final class LockStateTest {
+  @Test
+  void reads_unique_lockfile(@TempDir Path tempDir) throws IOException {
+    Files.writeString(tempDir.resolve("gradle.lockfile"),
+        "# This is a Gradle generated file for dependency locking.\n" +
+        "g:a:1.0=compileClasspath,runtimeClasspath\n" +
+        "g:b:2.0=runtimeClasspath\n" +
+        "empty=annotationProcessor\n");
+
+    LockState lockState = LockState.read(tempDir);
+    assertEquals(Set.of("annotationProcessor", "compileClasspath", "runtimeClasspath"), lockState.configurations());
+    assertEquals(Set.of("g:a:1.0"), lockState.modules("compileClasspath"));
+    assertEquals(Set.of("g:a:1.0", "g:b:2.0"), lockState.modules("runtimeClasspath"));
+    assertEquals(Set.of(), lockState.modules("annotationProcessor"));
+  }
+
+  @Test
+  void reads_lockfile_per_configuration(@TempDir Path tempDir) throws IOException {
+    Path lockfiles = Files.createDirectories(tempDir.resolve("gradle/dependency-locks"));
+    Files.writeString(lockfiles.resolve("compileClasspath.lockfile"),
+        "# This is a Gradle generated file for dependency locking.\n" +
+        "g:a:1.0\n");
+    Files.writeString(lockfiles.resolve("annotationProcessor.lockfile"),
+        "# This is a Gradle generated file for dependency locking.\n");
+    Files.writeString(lockfiles.resolve("buildscript-classpath.lockfile"),
+        "g:plugin:1.0\n");
+
+    LockState lockState = LockState.read(tempDir);
+    assertEquals(Set.of("annotationProcessor", "compileClasspath"), lockState.configurations());
+    assertEquals(Set.of("g:a:1.0"), lockState.modules("compileClasspath"));
+  }
+
+  @Test
+  void fingerprint_depends_on_content_only(@TempDir Path tempDir) throws IOException {
+    Files.writeString(tempDir.resolve("gradle.lockfile"),
+        "g:b:2.0=runtimeClasspath\n" +
+        "g:a:1.0=runtimeClasspath,compileClasspath\n" +
+        "empty=annotationProcessor\n");
+
+    LockState lockState = LockState.read(tempDir);
+    LockState expected = LockState.of(Map.of(
+        "compileClasspath", List.of("g:a:1.0"),
+        "runtimeClasspath", List.of("g:a:1.0", "g:b:2.0"),
+        "annotationProcessor", List.of()));
+    assertEquals(expected, lockState);
+    assertEquals(expected.fingerprint(), lockState.fingerprint());
+    assertNotEquals(expected.fingerprint(), lockState.restrictTo(List.of("compileClasspath")).fingerprint());
+  }
+}
@@ -0,0 +1,47 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class LockfileIndexTest {
+  private static final List<LockfileIndex.Entry> ENTRIES = List.of(
+      new LockfileIndex.Entry("a/gradle.lockfile", ":a", "compileClasspath", "g:m", "1.0"),
+      new LockfileIndex.Entry("a/gradle.lockfile", ":a", "runtimeClasspath", "g:m", "1.0"),
+      new LockfileIndex.Entry("a/gradle.lockfile", ":a", "runtimeClasspath", "g:n", "2.0"),
+      new LockfileIndex.Entry("b/gradle.lockfile", ":b", "compileClasspath", "g:m", "1.1"),
+      new LockfileIndex.Entry("b/gradle.lockfile", ":b", "compileClasspath", "h:x", "3.0"));
+
+  @Test
+  void reads_written_entries(@TempDir Path tempDir) {
+    LockfileIndex.write(tempDir.resolve("index.bin"), ENTRIES);
+
+    assertEquals(Set.copyOf(ENTRIES), Set.copyOf(LockfileIndex.read(tempDir.resolve("index.bin")).entries()));
+    assertEquals(5, LockfileIndex.read(tempDir.resolve("index.bin")).size());
+  }
+
+  @Test
+  void finds_module(@TempDir Path tempDir) {
+    LockfileIndex.write(tempDir.resolve("index.bin"), ENTRIES);
+    LockfileIndex index = LockfileIndex.read(tempDir.resolve("index.bin"));
+
+    assertEquals(List.of(ENTRIES.get(0), ENTRIES.get(1), ENTRIES.get(3)), index.findModule("g:m"));
+    assertEquals(List.of(ENTRIES.get(4)), index.findModule("h:x"));
+    assertEquals(List.of(), index.findModule("g:unknown"));
+    assertEquals(List.of(), index.findModule(":a"));
+  }
+
+  @Test
+  void supports_empty_index(@TempDir Path tempDir) {
+    LockfileIndex.write(tempDir.resolve("index.bin"), List.of());
+    LockfileIndex index = LockfileIndex.read(tempDir.resolve("index.bin"));
+
+    assertEquals(List.of(), index.entries());
+    assertEquals(List.of(), index.findModule("g:m"));
+  }
+}
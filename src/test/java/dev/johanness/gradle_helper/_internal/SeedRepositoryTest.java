@@ -0,0 +1,116 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class SeedRepositoryTest {
+  @Test
+  void uses_maven_layout() {
+    assertEquals("org/example/module/1.0/module-1.0.jar",
+        SeedRepository.path("org.example", "module", "1.0", "module-1.0.jar"));
+    assertEquals("org/example/module/maven-metadata.xml",
+        SeedRepository.metadataPath("org.example", "module"));
+  }
+
+  @Test
+  void finds_modules_named_by_failures() {
+    List<String> modules = List.of("group:module:1.0", "group:other:1.0", "group:third:1.0");
+    assertEquals(Set.of("group:module:1.0", "group:other:1.0"),
+        SeedRepository.failedModules(List.of(
+            new RuntimeException("Could not find module-1.0.jar (group:module:1.0)."),
+            new RuntimeException("Could not resolve all files.",
+                new RuntimeException("Could not download other-1.0.jar (group:other:1.0)"))),
+            modules));
+    assertEquals(Set.of(), SeedRepository.failedModules(List.of(new RuntimeException()), modules));
+  }
+
+  @Test
+  void finds_parent_pom() {
+    assertEquals("org.example:parent:2",
+        SeedRepository.parentOf(
+            "<project>\n" +
+            "  <parent>\n" +
+            "    <groupId>org.example</groupId>\n" +
+            "    <artifactId>parent</artifactId>\n" +
+            "    <version>2</version>\n" +
+            "  </parent>\n" +
+            "  <artifactId>module</artifactId>\n" +
+            "  <version>1.0</version>\n" +
+            "</project>\n"));
+    assertNull(SeedRepository.parentOf("<project><artifactId>module</artifactId></project>"));
+  }
+
+  @Test
+  void finds_imported_boms() {
+    String pom =
+        "<project>\n" +
+        "  <artifactId>module</artifactId>\n" +
+        "  <version>1.0</version>\n" +
+        "  <properties>\n" +
+        "    <other.version>3.1</other.version>\n" +
+        "  </properties>\n" +
+        "  <dependencyManagement>\n" +
+        "    <dependencies>\n" +
+        "      <dependency>\n" +
+        "        <groupId>org.example</groupId>\n" +
+        "        <artifactId>bom</artifactId>\n" +
+        "        <version>${project.version}</version>\n" +
+        "        <type>pom</type>\n" +
+        "        <scope>import</scope>\n" +
+        "      </dependency>\n" +
+        "      <dependency>\n" +
+        "        <groupId>org.other</groupId>\n" +
+        "        <artifactId>other-bom</artifactId>\n" +
+        "        <version>${other.version}</version>\n" +
+        "        <type>pom</type>\n" +
+        "        <scope>import</scope>\n" +
+        "      </dependency>\n" +
+        "      <dependency>\n" +
+        "        <groupId>org.example</groupId>\n" +
+        "        <artifactId>library</artifactId>\n" +
+        "        <version>2.0</version>\n" +
+        "      </dependency>\n" +
+        "    </dependencies>\n" +
+        "  </dependencyManagement>\n" +
+        "</project>\n";
+    Map<String, String> properties = new HashMap<>(SeedRepository.propertiesOf(pom));
+    assertEquals(Map.of("other.version", "3.1"), properties);
+    properties.put("project.version", "1.0");
+    assertEquals(List.of("org.example:bom:1.0", "org.other:other-bom:3.1"),
+        SeedRepository.importedBoms(pom, properties));
+    assertEquals(List.of(), SeedRepository.importedBoms(pom.replace("${other.version}", "${unknown}")
+        .replace("${project.version}", "${unknown}"), properties));
+  }
+
+  @Test
+  void lists_versions_in_metadata() {
+    String metadata = SeedRepository.mavenMetadata("org.example", "module", List.of("1.10", "1.9"));
+    assertTrue(metadata.contains("<latest>1.10</latest>"), metadata);
+    assertTrue(metadata.indexOf("<version>1.9</version>") < metadata.indexOf("<version>1.10</version>"), metadata);
+  }
+
+  @Test
+  void writes_checksums(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("module-1.0.jar");
+    Files.writeString(file, "abc");
+    SeedRepository.writeChecksums(file);
+    assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d",
+        Files.readString(tempDir.resolve("module-1.0.jar.sha1")));
+    assertEquals("900150983cd24fb0d6963f7d28e17f72",
+        Files.readString(tempDir.resolve("module-1.0.jar.md5")));
+    assertTrue(Files.exists(tempDir.resolve("module-1.0.jar.sha256")));
+    assertTrue(Files.exists(tempDir.resolve("module-1.0.jar.sha512")));
+  }
+}
@@ -0,0 +1,77 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.artifacts.ModuleIdentifier;
+import org.gradle.api.internal.artifacts.DefaultModuleIdentifier;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class SelectionStatisticsTest {
+  @Test
+  void counts_candidates_per_module() {
+    SelectionStatistics statistics = new SelectionStatistics(List.of());
+    statistics.candidateEvaluated(module("a"), false);
+    statistics.candidateEvaluated(module("a"), true);
+    statistics.candidateEvaluated(module("b"), true);
+    statistics.candidateEvaluated(module("b"), true);
+    statistics.candidateEvaluated(module("c"), false);
+
+    assertEquals(5, statistics.evaluated());
+    assertEquals(3, statistics.rejected());
+    assertEquals(List.of(
+        "g:b: 2 of 2 candidates rejected",
+        "g:a: 1 of 2 candidates rejected"),
+        statistics.mostRejectedModules(10));
+    assertEquals(1, statistics.mostRejectedModules(1).size());
+  }
+
+  @Test
+  void reports_unused_whitelist_entries() {
+    SelectionStatistics statistics = new SelectionStatistics(List.of("g:a:*", "g:b:*", "g:c:*"));
+    statistics.whitelistMatched(0);
+    statistics.whitelistMatched(2);
+    statistics.whitelistMatched(2);
+
+    assertEquals(1, statistics.whitelistMatches(0));
+    assertEquals(2, statistics.whitelistMatches(2));
+    assertEquals(List.of("g:b:*"), statistics.unusedWhitelistEntries());
+  }
+
+  @Test
+  void counts_concurrent_updates() throws Exception {
+    SelectionStatistics statistics = new SelectionStatistics(List.of("g:a:*"));
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 10_000; i++) {
+            statistics.candidateEvaluated(module("a"), i % 2 == 0);
+            statistics.whitelistMatched(0);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    assertEquals(40_000, statistics.evaluated());
+    assertEquals(20_000, statistics.rejected());
+    assertEquals(40_000, statistics.whitelistMatches(0));
+  }
+
+  private static @NotNull ModuleIdentifier module(@NotNull String name) {
+    return DefaultModuleIdentifier.newId("g", name);
+  }
+}
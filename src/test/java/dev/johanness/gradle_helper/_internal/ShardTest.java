@@ -0,0 +1,59 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.InvalidUserDataException;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class ShardTest {
+  private static final List<String> PROJECTS = IntStream.range(0, 50)
+      .mapToObj(i -> ":project" + i)
+      .collect(Collectors.toList());
+
+  @Test
+  void parses_specification() {
+    Shard shard = Shard.parse("3/8");
+    assertEquals(3, shard.getIndex());
+    assertEquals(8, shard.getCount());
+    assertThrows(InvalidUserDataException.class, () -> Shard.parse("0/8"));
+    assertThrows(InvalidUserDataException.class, () -> Shard.parse("9/8"));
+    assertThrows(InvalidUserDataException.class, () -> Shard.parse("3"));
+    assertThrows(InvalidUserDataException.class, () -> Shard.parse("a/b"));
+  }
+
+  @Test
+  void assigns_every_project_to_exactly_one_shard_by_hash() {
+    assertPartition(Map.of());
+  }
+
+  @Test
+  void assigns_every_project_to_exactly_one_shard_by_cost() {
+    assertPartition(Map.of(":project1", 100.0, ":project2", 50.0, ":project3", 5.0));
+  }
+
+  @Test
+  void balances_shards_by_cost() {
+    Map<String, Double> costs = Map.of(":a", 8.0, ":b", 7.0, ":c", 6.0, ":d", 5.0, ":e", 4.0);
+    List<String> projects = List.of(":a", ":b", ":c", ":d", ":e");
+    assertEquals(List.of(":a", ":d", ":e"), Shard.parse("1/2").select(projects, costs));
+    assertEquals(List.of(":b", ":c"), Shard.parse("2/2").select(projects, costs));
+  }
+
+  private static void assertPartition(Map<String, Double> costs) {
+    List<String> selected = new ArrayList<>();
+    for (int i = 1; i <= 8; i++) {
+      selected.addAll(Shard.parse(i + "/8").select(PROJECTS, costs));
+    }
+    selected.sort(null);
+    List<String> expected = new ArrayList<>(PROJECTS);
+    expected.sort(null);
+    assertEquals(expected, selected);
+  }
+}
@@ -0,0 +1,33 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class TaskArgumentsTest {
+  private static final Pattern TASK_PATTERN = Pattern.compile("(?:.*:)?update");
+
+  @Test
+  void reads_separate_and_inline_values() {
+    assertEquals(List.of("a:*", "b:c"), TaskArguments.optionValues(
+        List.of("update", "--dependency", "a:*", "--dependency=b:c"), TASK_PATTERN, "dependency"));
+  }
+
+  @Test
+  void ignores_options_of_other_tasks() {
+    assertEquals(List.of("b:*"), TaskArguments.optionValues(
+        List.of("other", "--dependency", "a:*", ":sub:update", "--dependency", "b:*", "build"),
+        TASK_PATTERN, "dependency"));
+    assertEquals(List.of(), TaskArguments.optionValues(
+        List.of("update", "build", "--dependency", "a:*"), TASK_PATTERN, "dependency"));
+  }
+
+  @Test
+  void ignores_option_without_value() {
+    assertEquals(List.of(), TaskArguments.optionValues(
+        List.of("update", "--dependency"), TASK_PATTERN, "dependency"));
+  }
+}
@@ -0,0 +1,120 @@
+package dev.johanness.gradle_helper._internal;
+
+import dev.johanness.gradle_helper._internal.TaskHistory.Execution;
+import dev.johanness.gradle_helper._internal.TaskHistory.Outcome;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TaskHistoryTest {
+  @Test
+  void keeps_only_latest_builds(@TempDir Path tempDir) {
+    Path file = tempDir.resolve("history/task-history.txt");
+    for (long build = 1; build <= 5; build++) {
+      TaskHistory.append(file, List.of(
+          new Execution(build, ":b", Outcome.UP_TO_DATE, false, 1),
+          new Execution(build, ":a", Outcome.EXECUTED, true, 10 * build)), 3);
+    }
+
+    List<Execution> history = TaskHistory.read(file);
+    assertEquals(List.of(3L, 3L, 4L, 4L, 5L, 5L),
+        history.stream().map(Execution::getBuild).collect(Collectors.toList()));
+    assertEquals(":a", history.get(0).getTaskPath());
+    assertEquals(Outcome.EXECUTED, history.get(0).getOutcome());
+    assertTrue(history.get(0).isIncremental());
+    assertEquals(30, history.get(0).getMillis());
+  }
+
+  @Test
+  void keeps_executions_of_concurrent_builds(@TempDir Path tempDir) throws InterruptedException {
+    Path file = tempDir.resolve("task-history.txt");
+    List<Thread> builds = new ArrayList<>();
+    for (long build = 1; build <= 8; build++) {
+      List<Execution> executions = List.of(new Execution(build, ":a", Outcome.EXECUTED, false, 1));
+      builds.add(new Thread(() -> TaskHistory.append(file, executions, 10)));
+    }
+    builds.forEach(Thread::start);
+    for (Thread build : builds) {
+      build.join();
+    }
+    assertEquals(8, TaskHistory.read(file).size());
+  }
+
+  @Test
+  void ignores_corrupt_lines(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("task-history.txt");
+    Files.writeString(file,
+        "1\t:a\tEXECUTED\tfalse\t10\n" +
+        "x\t:a\tEXECUTED\tfalse\t10\n" +
+        "2\t:a\tUNKNOWN\tfalse\t10\n" +
+        "3\t:a\tEXECUTED\tfalse\n" +
+        "4\t:a\tUP_TO_DATE\tfalse\t1\n");
+    assertEquals(List.of(1L, 4L),
+        TaskHistory.read(file).stream().map(Execution::getBuild).collect(Collectors.toList()));
+  }
+
+  @Test
+  void calculates_percentiles() {
+    List<Long> values = List.of(5L, 1L, 4L, 2L, 3L, 6L, 7L, 8L, 9L, 10L);
+    assertEquals(5, TaskHistory.percentile(values, 50));
+    assertEquals(10, TaskHistory.percentile(values, 95));
+    assertEquals(1, TaskHistory.percentile(values, 0));
+    assertEquals(7, TaskHistory.percentile(List.of(7L), 50));
+  }
+
+  @Test
+  void detects_regressions() {
+    assertTrue(TaskHistory.regressed(List.of(100L, 110L, 90L, 105L, 95L, 400L)));
+    assertFalse(TaskHistory.regressed(List.of(100L, 110L, 90L, 105L, 95L, 108L)));
+    // Too small to matter
+    assertFalse(TaskHistory.regressed(List.of(10L, 11L, 9L, 10L, 10L, 50L)));
+    // Not enough earlier executions
+    assertFalse(TaskHistory.regressed(List.of(100L, 110L, 400L)));
+  }
+
+  @Test
+  void reports_regression_only_if_task_executed_in_latest_build() {
+    List<Execution> history = new ArrayList<>();
+    for (long build = 1; build <= 5; build++) {
+      history.add(new Execution(build, ":a", Outcome.EXECUTED, false, 100));
+    }
+    history.add(new Execution(6, ":a", Outcome.EXECUTED, false, 400));
+    assertTrue(TaskHistory.trends(history, 10).get(0).isRegressed());
+
+    history.add(new Execution(7, ":a", Outcome.UP_TO_DATE, false, 1));
+    assertFalse(TaskHistory.trends(history, 10).get(0).isRegressed());
+
+    // The task did not run in the latest build at all.
+    history.remove(history.size() - 1);
+    history.add(new Execution(7, ":b", Outcome.EXECUTED, false, 1));
+    assertFalse(TaskHistory.trends(history, 10).get(0).isRegressed());
+  }
+
+  @Test
+  void reports_trends_of_latest_builds() {
+    List<Execution> history = List.of(
+        new Execution(1, ":a", Outcome.EXECUTED, false, 1000),
+        new Execution(2, ":a", Outcome.EXECUTED, false, 20),
+        new Execution(2, ":b", Outcome.FROM_CACHE, false, 5),
+        new Execution(3, ":a", Outcome.UP_TO_DATE, false, 1),
+        new Execution(3, ":b", Outcome.EXECUTED, false, 50));
+
+    List<TaskHistory.Trend> trends = TaskHistory.trends(history, 2);
+    assertEquals(List.of(":b", ":a"),
+        trends.stream().map(TaskHistory.Trend::getTaskPath).collect(Collectors.toList()));
+    assertEquals(2, trends.get(1).getBuilds());
+    assertEquals(1, trends.get(1).getAvoided());
+    assertEquals(20, trends.get(1).getP50());
+    assertEquals(50, trends.get(0).getP95());
+  }
+}
@@ -0,0 +1,80 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+final class TaskInputRecordingTest {
+  @Test
+  void reads_what_was_written(@TempDir Path tempDir) throws IOException {
+    Map<String, SortedMap<String, String>> recording = Map.of(
+        ":a:compileJava", new TreeMap<>(Map.of("property options.encoding", "0123", "file src/A.java", "4567")),
+        ":b:jar", new TreeMap<>(Map.of("implementation", "89ab")));
+    Path file = tempDir.resolve("recording/task-inputs.gz");
+    TaskInputRecording.write(file, recording);
+    assertEquals(recording, TaskInputRecording.read(file));
+  }
+
+  @Test
+  void names_differing_inputs() {
+    Map<String, Map<String, String>> baseline = Map.of(
+        ":a", Map.of("file A.java", "1", "file B.java", "2", "property p", "3"),
+        ":b", Map.of("implementation", "4"));
+    Map<String, Map<String, String>> current = Map.of(
+        ":a", Map.of("file A.java", "1", "file C.java", "5", "property p", "6"),
+        ":c", Map.of("implementation", "4"));
+    assertEquals(List.of(
+        ":a: file B.java was removed",
+        ":a: file C.java was added",
+        ":a: property p differs",
+        ":b: only in baseline",
+        ":c: only in current build"),
+        TaskInputRecording.diff(baseline, current));
+  }
+
+  @Test
+  void hashes_file_again_when_size_or_modification_time_changes(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("A.java");
+    FileTime lastModified = FileTime.fromMillis(1_000_000);
+    Files.writeString(file, "class A {}");
+    Files.setLastModifiedTime(file, lastModified);
+    TaskInputRecording.FileHashes fileHashes = new TaskInputRecording.FileHashes();
+    String hash = fileHashes.hash(file);
+
+    // Same size and modification time, so the cached hash is used.
+    Files.writeString(file, "class B {}");
+    Files.setLastModifiedTime(file, lastModified);
+    assertEquals(hash, fileHashes.hash(file));
+
+    Files.setLastModifiedTime(file, FileTime.fromMillis(2_000_000));
+    assertNotEquals(hash, fileHashes.hash(file));
+    assertEquals(new TaskInputRecording.FileHashes().hash(file), fileHashes.hash(file));
+  }
+
+  @Test
+  void combines_hashes_of_files_with_same_name_in_any_order() {
+    String combined = TaskInputRecording.combine(List.of("1111", "2222", "3333"));
+    assertEquals(combined, TaskInputRecording.combine(List.of("3333", "1111", "2222")));
+    assertEquals(combined, TaskInputRecording.combine(List.of("2222", "3333", "1111")));
+    assertNotEquals(combined, TaskInputRecording.combine(List.of("1111", "2222", "4444")));
+    assertEquals("1111", TaskInputRecording.combine(List.of("1111")));
+  }
+
+  @Test
+  void ignores_identity_of_objects_without_to_string() {
+    assertEquals(Object.class.getName(), TaskInputRecording.valueString(new Object()));
+    assertEquals("[a, b]", TaskInputRecording.valueString(List.of("a", "b")));
+    assertEquals("null", TaskInputRecording.valueString(null));
+  }
+}
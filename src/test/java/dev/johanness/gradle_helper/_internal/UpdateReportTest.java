@@ -0,0 +1,91 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.gradle.api.GradleException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class UpdateReportTest {
+  @Test
+  void sorts_slowest_configurations_first() {
+    UpdateReport report = new UpdateReport(List.of(
+        new UpdateReport.Entry(":a", "compileClasspath", Duration.ofMillis(5), 3, 2),
+        new UpdateReport.Entry(":b", "runtimeClasspath", Duration.ofMillis(20), 8, 7),
+        new UpdateReport.Entry(":a", "runtimeClasspath", Duration.ofMillis(10), 4, 3)));
+
+    assertEquals(List.of(":b:runtimeClasspath", ":a:runtimeClasspath"),
+        report.slowest(2).stream()
+            .map(entry -> entry.getProjectPath() + ":" + entry.getConfiguration())
+            .collect(Collectors.toList()));
+    assertEquals(3, report.slowest(10).size());
+  }
+
+  @Test
+  void writes_json_and_html(@TempDir Path tempDir) throws IOException {
+    UpdateReport report = new UpdateReport(List.of(
+        new UpdateReport.Entry(":a\"b", "<conf>", Duration.ofMillis(12), 3, 2)));
+
+    report.writeJson(tempDir.resolve("report.json"));
+    report.writeHtml(tempDir.resolve("report.html"));
+
+    assertEquals(
+        "{\n" +
+        "  \"configurations\": [\n" +
+        "    {\"project\": \":a\\\"b\", \"configuration\": \"<conf>\", \"resolutionMillis\": 12.0, " +
+        "\"components\": 3, \"lockEntries\": 2}\n" +
+        "  ]\n" +
+        "}\n",
+        Files.readString(tempDir.resolve("report.json")));
+    assertTrue(Files.readString(tempDir.resolve("report.html")).contains("<td>&lt;conf&gt;</td>"));
+  }
+
+  @Test
+  void reads_resolution_time_per_project(@TempDir Path tempDir) {
+    new UpdateReport(List.of(
+        new UpdateReport.Entry(":a", "compileClasspath", Duration.ofMillis(5), 3, 2),
+        new UpdateReport.Entry(":a", "runtimeClasspath", Duration.ofMillis(10), 4, 3),
+        new UpdateReport.Entry(":b\"\\", "runtimeClasspath", Duration.ofMillis(20), 8, 7)))
+        .writeJson(tempDir.resolve("report.json"));
+
+    assertEquals(Map.of(":a", 15.0, ":b\"\\", 20.0),
+        UpdateReport.readResolutionMillisByProject(tempDir.resolve("report.json")));
+    assertEquals(Map.of(), UpdateReport.readResolutionMillisByProject(tempDir.resolve("missing.json")));
+  }
+
+  @Test
+  void reads_reformatted_report(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("report.json");
+    Files.writeString(file,
+        "{\n" +
+        "  \"configurations\": [\n" +
+        "    {\n" +
+        "      \"resolutionMillis\": 5,\n" +
+        "      \"configuration\": \"compileClasspath\",\n" +
+        "      \"project\": \":a\"\n" +
+        "    },\n" +
+        "    {\"project\": \":a\", \"resolutionMillis\": 2.5}\n" +
+        "  ]\n" +
+        "}\n");
+    assertEquals(Map.of(":a", 7.5), UpdateReport.readResolutionMillisByProject(file));
+  }
+
+  @Test
+  void rejects_invalid_report(@TempDir Path tempDir) throws IOException {
+    Path file = tempDir.resolve("report.json");
+    Files.writeString(file, "{\"projects\": []}");
+    assertThrows(GradleException.class, () -> UpdateReport.readResolutionMillisByProject(file));
+    Files.writeString(file, "{\"configurations\": [{\"project\": \":a\"}]}");
+    assertThrows(GradleException.class, () -> UpdateReport.readResolutionMillisByProject(file));
+  }
+}
@@ -0,0 +1,47 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class VerdictCacheTest {
+  @Test
+  void computes_verdict_only_once() {
+    VerdictCache<String> cache = new VerdictCache<>(16);
+    AtomicInteger computations = new AtomicInteger();
+
+    assertTrue(cache.get("1.0-SNAPSHOT", key -> computations.incrementAndGet() > 0));
+    assertTrue(cache.get("1.0-SNAPSHOT", key -> computations.incrementAndGet() > 0));
+    assertFalse(cache.get("1.0", key -> computations.incrementAndGet() < 0));
+
+    assertEquals(2, computations.get());
+    assertEquals(1, cache.hits());
+    assertEquals(2, cache.misses());
+    assertEquals(1.0 / 3, cache.hitRate(), 1e-9);
+  }
+
+  @Test
+  void evicts_least_recently_used_entries() {
+    VerdictCache<Integer> cache = new VerdictCache<>(16);
+    // With 16 segments, every segment holds one entry. Keys 0, 16 and 32 share a segment.
+    cache.get(0, key -> true);
+    cache.get(16, key -> true);
+    assertEquals(2, cache.misses());
+
+    cache.get(16, key -> true);
+    assertEquals(1, cache.hits());
+
+    cache.get(0, key -> true);
+    assertEquals(3, cache.misses());
+  }
+
+  @Test
+  void rejects_sizes_smaller_than_number_of_segments() {
+    assertThrows(IllegalArgumentException.class, () -> new VerdictCache<String>(1));
+  }
+}
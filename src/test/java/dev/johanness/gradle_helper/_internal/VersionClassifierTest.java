@@ -0,0 +1,76 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class VersionClassifierTest {
+  private static final @NotNull Pattern RELEASED_VERSION_PATTERN =
+      Pattern.compile("(\\d|release|ga|final|sp|[-._+])+", Pattern.CASE_INSENSITIVE);
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0.9_+_1", "1.0-ReLeAsE", "GA", "1.Final", "2.2sp4", "31.1", "5.7.0", "gaga", "spfinal"})
+  void accepts_version(String version) {
+    assertTrue(VersionClassifier.DEFAULT.looksLikeRelease(version), version);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "1.0-SNAPSHOT", "1.0dev1", "5.1-M1", "x", "31.1-jre", "1.0-rc1", "s", "rel", "\u017Fp", "1.0 "})
+  void rejects_version(String version) {
+    assertFalse(VersionClassifier.DEFAULT.looksLikeRelease(version), version);
+  }
+
+  @Test
+  void matches_like_regular_expression() {
+    char[] alphabet = "0123456789-._+releasgaGAfinlFINLSPRE xyz\u017F\u212A\u0130\u0131\u00E9".toCharArray();
+    Random random = new Random(42);
+    for (int i = 0; i < 100_000; i++) {
+      char[] version = new char[random.nextInt(12)];
+      for (int j = 0; j < version.length; j++) {
+        version[j] = alphabet[random.nextInt(alphabet.length)];
+      }
+      assertMatchesLikeRegularExpression(new String(version));
+    }
+    for (String token : List.of("release", "ga", "final", "sp")) {
+      for (String other : List.of("release", "ga", "final", "sp", "1", "-", "")) {
+        assertMatchesLikeRegularExpression(token + other);
+        assertMatchesLikeRegularExpression(token.toUpperCase() + other);
+        assertMatchesLikeRegularExpression(token.substring(1) + other);
+        assertMatchesLikeRegularExpression(token.substring(0, token.length() - 1) + other);
+      }
+    }
+  }
+
+  @Test
+  void supports_custom_qualifiers() {
+    VersionClassifier classifier = new VersionClassifier(List.of("Final", "jre", "android"));
+    assertTrue(classifier.looksLikeRelease("31.1-jre"));
+    assertTrue(classifier.looksLikeRelease("31.1-ANDROID"));
+    assertTrue(classifier.looksLikeRelease("5.4.FINAL"));
+    assertFalse(classifier.looksLikeRelease("1.0.GA"));
+  }
+
+  @Test
+  void rejects_ambiguous_qualifiers() {
+    assertThrows(IllegalArgumentException.class, () -> new VersionClassifier(List.of("r", "rc")));
+    assertThrows(IllegalArgumentException.class, () -> new VersionClassifier(List.of("ga", "GA")));
+    assertThrows(IllegalArgumentException.class, () -> new VersionClassifier(List.of("")));
+    assertThrows(IllegalArgumentException.class, () -> new VersionClassifier(List.of("1a")));
+  }
+
+  private static void assertMatchesLikeRegularExpression(@NotNull String version) {
+    assertEquals(RELEASED_VERSION_PATTERN.matcher(version).matches(),
+        VersionClassifier.DEFAULT.looksLikeRelease(version),
+        "looksLikeRelease(\"" + version + "\")");
+  }
+}
@@ -0,0 +1,40 @@
+package dev.johanness.gradle_helper._internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class VersionRangeTest {
+  @Test
+  void orders_versions() {
+    assertTrue(VersionRange.compareVersions("1.10", "1.9") > 0);
+    assertTrue(VersionRange.compareVersions("1.0.1", "1.0") > 0);
+    assertTrue(VersionRange.compareVersions("1.0-rc1", "1.0") < 0);
+    assertTrue(VersionRange.compareVersions("1.0-dev", "1.0-alpha") < 0);
+    assertTrue(VersionRange.compareVersions("1.0-alpha", "1.0-rc") < 0);
+    assertTrue(VersionRange.compareVersions("1.0-rc", "1.0-final") < 0);
+    assertTrue(VersionRange.compareVersions("1.01", "1.1") == 0);
+  }
+
+  @Test
+  void parses_ranges() {
+    VersionRange range = VersionRange.parse("[1.0,2.0)");
+    assertTrue(range.contains("1.0"));
+    assertTrue(range.contains("1.9.9"));
+    assertFalse(range.contains("2.0"));
+    assertFalse(range.contains("0.9"));
+
+    VersionRange open = VersionRange.parse("]1.0,)");
+    assertFalse(open.contains("1.0"));
+    assertTrue(open.contains("100"));
+  }
+
+  @Test
+  void parses_prefixes_and_single_versions() {
+    assertTrue(VersionRange.parse("1.+").contains("1.5"));
+    assertFalse(VersionRange.parse("1.+").contains("2.0"));
+    assertTrue(VersionRange.parse("1.0").contains("1.0"));
+    assertFalse(VersionRange.parse("1.0").contains("1.0.1"));
+  }
+}